@@ -4,18 +4,28 @@ import models.Combatant;
 import techniques.CursedTechnique;
 import utils.Position;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
-public class AIController {
+public class AIController implements AIStrategy {
 
     private final BattleManager battleManager;
 
+    public AIController() {
+        this(null);
+    }
+
     public AIController(BattleManager battleManager) {
         this.battleManager = battleManager;
     }
 
     public void executeTurn() {
+        playTurn(battleManager);
+    }
+
+    @Override
+    public void playTurn(BattleManager battleManager) {
         Combatant unit = battleManager.getCurrentUnit();
         if (unit == null || !unit.isAlive()) {
             battleManager.endTurn();
@@ -23,91 +33,102 @@ public class AIController {
         }
 
         Position myPos = battleManager.getUnitPosition(unit);
-        List<Combatant> targets = battleManager.getPlayerTeam().getAliveMembers();
-
-        if (targets.isEmpty() || myPos == null) {
+        Combatant closestTarget = myPos != null ? findClosestTarget(battleManager, unit, myPos) : null;
+        if (closestTarget == null) {
             battleManager.endTurn();
             return;
         }
+        Position targetPos = battleManager.getUnitPosition(closestTarget);
+
+        ThreatMap threatMap = battleManager.getThreatMap();
+        List<CursedTechnique> available = battleManager.getAvailableTechniques();
+        available.sort((a, b) -> techniquePower(b) - techniquePower(a));
+
+        for (CursedTechnique tech : available) {
+            ThreatMap.Threat threat = pickBestThreat(battleManager, threatMap.getTechniqueThreats(tech), unit, tech);
+            if (threat != null) {
+                moveWithin(battleManager, threat.getTiles(), myPos, targetPos, !threat.getTiles().contains(myPos));
+                battleManager.useTechnique(tech, threat.getTarget());
+                battleManager.endTurn();
+                return;
+            }
+        }
 
-        Combatant closestTarget = null;
+        ThreatMap.Threat attack = pickBestThreat(battleManager, threatMap.getAttackThreats(), unit, null);
+        if (attack != null) {
+            moveWithin(battleManager, attack.getTiles(), myPos, targetPos, !attack.getTiles().contains(myPos));
+            battleManager.basicAttack(attack.getTarget());
+        } else {
+            moveWithin(battleManager, battleManager.getMovablePositions(), myPos, targetPos, false);
+            battleManager.defend();
+        }
+        battleManager.endTurn();
+    }
+
+    private Combatant findClosestTarget(BattleManager battleManager, Combatant unit, Position myPos) {
+        Combatant closest = null;
         int minDist = Integer.MAX_VALUE;
-        for (Combatant target : targets) {
+        for (Combatant target : battleManager.getOpposingTeam(unit).getAliveMembers()) {
             Position targetPos = battleManager.getUnitPosition(target);
             if (targetPos != null) {
                 int dist = myPos.chebyshevDistance(targetPos);
                 if (dist < minDist) {
                     minDist = dist;
-                    closestTarget = target;
+                    closest = target;
                 }
             }
         }
+        return closest;
+    }
 
-        if (closestTarget == null) {
-            battleManager.endTurn();
-            return;
-        }
-
-        Position targetPos = battleManager.getUnitPosition(closestTarget);
-        List<Position> movable = battleManager.getMovablePositions();
-        if (!movable.isEmpty() && targetPos != null) {
-            Position bestMove = null;
-            int bestDist = myPos.chebyshevDistance(targetPos);
-            for (Position p : movable) {
-                int dist = p.chebyshevDistance(targetPos);
-                if (dist < bestDist) {
-                    bestDist = dist;
-                    bestMove = p;
-                }
-            }
-            if (bestMove != null) {
-                battleManager.moveUnit(bestMove);
+    /** Moves to the tile among {@code tiles} closest to {@code targetPos}; unless forced, only if that beats staying put. */
+    private void moveWithin(BattleManager battleManager, List<Position> tiles, Position myPos,
+                            Position targetPos, boolean mustMove) {
+        Position bestMove = null;
+        int bestDist = mustMove ? Integer.MAX_VALUE : myPos.chebyshevDistance(targetPos);
+        for (Position p : tiles) {
+            int dist = p.chebyshevDistance(targetPos);
+            if (dist < bestDist) {
+                bestDist = dist;
+                bestMove = p;
             }
         }
-
-        boolean acted = false;
-        List<CursedTechnique> available = battleManager.getAvailableTechniques();
-        if (!available.isEmpty()) {
-            // Sort by effective power: cost * (2 if blackFlash-capable, else 1)
-            available.sort((a, b) -> {
-                int pa = a.getCursedEnergyCost() * (a.canTriggerBlackFlash() ? 2 : 1);
-                int pb = b.getCursedEnergyCost() * (b.canTriggerBlackFlash() ? 2 : 1);
-                return pb - pa;
-            });
-            for (CursedTechnique tech : available) {
-                List<Combatant> techTargets = battleManager.getTechniqueTargets(tech);
-                if (!techTargets.isEmpty()) {
-                    Combatant best = pickBestTarget(techTargets, battleManager.getCurrentUnit());
-                    battleManager.useTechnique(tech, best);
-                    acted = true;
-                    break;
-                }
-            }
+        if (bestMove != null && !bestMove.equals(myPos)) {
+            battleManager.moveUnit(bestMove);
         }
+    }
 
-        if (!acted) {
-            List<Combatant> attackTargets = battleManager.getAttackableTargets();
-            if (!attackTargets.isEmpty()) {
-                Combatant bestTarget = pickBestTarget(attackTargets,
-                        battleManager.getCurrentUnit());
-                battleManager.basicAttack(bestTarget);
-                acted = true;
-            }
-        }
+    private ThreatMap.Threat pickBestThreat(BattleManager battleManager, List<ThreatMap.Threat> threats,
+                                            Combatant attacker, CursedTechnique tech) {
+        if (threats.isEmpty()) return null;
+        List<Combatant> targets = new ArrayList<>(threats.size());
+        for (ThreatMap.Threat t : threats) targets.add(t.getTarget());
+        return threats.get(targets.indexOf(pickBestTarget(battleManager, targets, attacker, tech)));
+    }
 
-        if (!acted) {
-            battleManager.defend();
+    /** Steps onto {@code from} if needed, then performs the threat's strike; does not end the turn. */
+    static void strike(BattleManager battleManager, ThreatMap.Threat threat, Position from) {
+        if (from != null && !from.equals(battleManager.getUnitPosition(battleManager.getCurrentUnit()))) {
+            battleManager.moveUnit(from);
         }
+        if (threat.isBasicAttack()) battleManager.basicAttack(threat.getTarget());
+        else battleManager.useTechnique(threat.getTechnique(), threat.getTarget());
+    }
 
-        battleManager.endTurn();
+    /** Effective power: cost * (2 if blackFlash-capable, else 1). */
+    static int techniquePower(CursedTechnique tech) {
+        return tech.getCursedEnergyCost() * (tech.canTriggerBlackFlash() ? 2 : 1);
     }
 
-    /** Prefer killable targets (one-shot), then most dangerous (highest ATK). */
-    private Combatant pickBestTarget(List<Combatant> targets, Combatant attacker) {
+    /**
+     * Prefer killable targets (one-shot with {@code tech}, {@code null} for the basic
+     * attack, per the battle's damage matrix), then most dangerous (highest ATK).
+     */
+    static Combatant pickBestTarget(BattleManager battle, List<Combatant> targets,
+                                    Combatant attacker, CursedTechnique tech) {
         if (attacker != null) {
-            int estimatedDmg = attacker.getAttack();
             for (Combatant t : targets) {
-                if (estimatedDmg >= t.getHp()) return t;
+                if (battle.isLethal(attacker, t, tech)) return t;
             }
         }
         return targets.stream()
@@ -0,0 +1,12 @@
+package controllers;
+
+/**
+ * Поведение ИИ за одну сторону боя. Реализация делает ход текущим юнитом
+ * {@link BattleManager} и обязана завершить его вызовом {@code endTurn()}.
+ */
+public interface AIStrategy {
+    void playTurn(BattleManager battle);
+
+    /** Label for logs and tournament tables. */
+    default String getName() { return getClass().getSimpleName(); }
+}
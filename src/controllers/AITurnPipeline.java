@@ -0,0 +1,177 @@
+package controllers;
+
+import enums.BattleState;
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Считает ходы ИИ в фоновом потоке на точной копии боя и возвращает их очередью
+ * команд для потока, которому принадлежит бой (в UI — EDT). Если следующий ход
+ * тоже за ИИ, он считается заранее, пока проигрывается текущий.
+ */
+public class AITurnPipeline {
+
+    private final ExecutorService executor;
+    private AIStrategy playerAI;
+    private AIStrategy enemyAI;
+
+    private Speculation speculation;
+    private Future<List<BattleCommand>> inFlight;
+    private int generation;
+
+    /** A {@code null} strategy leaves that side to the player. */
+    public AITurnPipeline(AIStrategy playerAI, AIStrategy enemyAI) {
+        this.playerAI = playerAI;
+        this.enemyAI = enemyAI;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "battle-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void setPlayerAI(AIStrategy playerAI) {
+        this.playerAI = playerAI;
+        invalidate();
+    }
+
+    public synchronized void setEnemyAI(AIStrategy enemyAI) {
+        this.enemyAI = enemyAI;
+        invalidate();
+    }
+
+    public synchronized boolean controls(BattleManager battle, Combatant unit) {
+        return strategyFor(battle, unit) != null;
+    }
+
+    /**
+     * Commands for the current unit's whole turn, ending with {@link BattleCommand.Type#END_TURN}.
+     * Must be called from the thread that owns {@code battle}; returns the precomputed
+     * turn when the battle is still in the state it was speculated from.
+     */
+    public synchronized Future<List<BattleCommand>> request(BattleManager battle) {
+        if (speculation != null && speculation.matches(battle)) {
+            inFlight = speculation.future;
+            speculation = null;
+            return inFlight;
+        }
+        invalidate();
+        BattleManager copy = battle.copy();
+        TurnRecorder recorder = new TurnRecorder(copy);
+        int gen = generation;
+        inFlight = executor.submit(() -> planTurn(copy, recorder, gen));
+        return inFlight;
+    }
+
+    /** Cancels the requested and any speculative turn, e.g. after the battle changed outside the pipeline. */
+    public synchronized void invalidate() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        if (speculation != null) {
+            speculation.future.cancel(true);
+            speculation = null;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<BattleCommand> planTurn(BattleManager copy, TurnRecorder recorder, int gen) {
+        AIStrategy ai;
+        synchronized (this) {
+            ai = strategyFor(copy, copy.getCurrentUnit());
+        }
+        recorder.commands.clear();
+        recorder.turnEnded = false;
+        if (ai != null) ai.playTurn(copy);
+        if (!recorder.turnEnded) copy.endTurn();
+
+        List<BattleCommand> commands = new ArrayList<>(recorder.commands);
+        commands.add(BattleCommand.endTurn());
+
+        synchronized (this) {
+            Combatant next = copy.getCurrentUnit();
+            if (gen == generation && !isFinished(copy) && next != null && strategyFor(copy, next) != null) {
+                speculation = new Speculation(copy.getZobristHash(), copy.getRoundNumber(),
+                        executor.submit(() -> planTurn(copy, recorder, gen)));
+            }
+        }
+        return commands;
+    }
+
+    private AIStrategy strategyFor(BattleManager battle, Combatant unit) {
+        if (unit == null) return null;
+        return battle.isPlayerUnit(unit) ? playerAI : enemyAI;
+    }
+
+    private static boolean isFinished(BattleManager battle) {
+        return battle.getState() == BattleState.VICTORY || battle.getState() == BattleState.DEFEAT;
+    }
+
+    private static final class Speculation {
+        final long hash;
+        final int round;
+        final Future<List<BattleCommand>> future;
+
+        Speculation(long hash, int round, Future<List<BattleCommand>> future) {
+            this.hash = hash;
+            this.round = round;
+            this.future = future;
+        }
+
+        boolean matches(BattleManager battle) {
+            return battle.getZobristHash() == hash && battle.getRoundNumber() == round;
+        }
+    }
+
+    /** Turns the copy's events back into commands addressed by roster index. */
+    private static final class TurnRecorder implements BattleListener {
+        private final BattleManager battle;
+        private final Map<Combatant, Integer> index = new IdentityHashMap<>();
+        final List<BattleCommand> commands = new ArrayList<>();
+        boolean turnEnded;
+
+        TurnRecorder(BattleManager battle) {
+            this.battle = battle;
+            List<Combatant> roster = battle.getRoster();
+            for (int i = 0; i < roster.size(); i++) index.put(roster.get(i), i);
+            battle.addListener(this);
+        }
+
+        @Override public void onUnitMoved(Combatant unit, Position from, Position to) {
+            commands.add(BattleCommand.move(to));
+        }
+
+        @Override public void onUnitAttacked(Combatant attacker, Combatant target, int damage, boolean blackFlash) {
+            commands.add(BattleCommand.attack(index.get(target)));
+        }
+
+        @Override public void onTechniqueUsed(Combatant user, Combatant target, String techniqueName,
+                                              int damage, String animationType, Position targetPos) {
+            int tech = 0;
+            List<CursedTechnique> techs = battle.getAllTechniquesForUnit(user);
+            while (tech < techs.size() && !techs.get(tech).getName().equals(techniqueName)) tech++;
+            commands.add(BattleCommand.technique(tech, index.get(target)));
+        }
+
+        @Override public void onUnitDefended(Combatant unit)          { commands.add(BattleCommand.defend()); }
+        @Override public void onTurnStarted(Combatant unit)           { turnEnded = true; }
+        @Override public void onBattleEnded(BattleState result)       { turnEnded = true; }
+        @Override public void onBattleStarted()                       {}
+        @Override public void onUnitDefeated(Combatant unit)          {}
+        @Override public void onMessage(String message)               {}
+    }
+}
@@ -0,0 +1,214 @@
+package controllers;
+
+import enums.BattleState;
+import models.Combatant;
+import systems.RandomService;
+import techniques.CursedTechnique;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ИИ с итеративным углублением и альфа-бета отсечением по целым ходам юнитов.
+ * Позиции кэшируются в таблице транспозиций по хэшу Зобриста; броски кубиков
+ * внутри поиска фиксированы, поэтому решение детерминировано при том же бюджете.
+ */
+public class AlphaBetaAIController implements AIStrategy {
+
+    public static final long DEFAULT_TIME_BUDGET_MS = 200;
+    public static final int DEFAULT_MAX_DEPTH = 8;
+
+    private static final int TABLE_BITS = 18;
+    private static final int WIN_SCORE = 1_000_000;
+    private static final int HEALTH_SCALE = 10_000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MS;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    private long deadline;
+    private boolean timedOut;
+    private long rollSeed;
+    private int nodes;
+
+    /** Wall-clock budget per decision; 0 means only the depth cap applies. */
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+    public void setMaxDepth(int maxDepth)                  { this.maxDepth = maxDepth; }
+
+    @Override
+    public void playTurn(BattleManager battle) {
+        Combatant unit = battle.getCurrentUnit();
+        if (unit == null || !unit.isAlive()) {
+            battle.endTurn();
+            return;
+        }
+
+        List<TurnPlan> plans = TurnPlan.generate(battle);
+        int[] order = order(battle, plans, -1);
+        if (plans.size() == 1) {
+            plans.get(0).apply(battle);
+            return;
+        }
+
+        table.clear();
+        deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        timedOut = false;
+        nodes = 0;
+        rollSeed = RandomService.deriveSeed(battle.getSeed(), battle.getZobristHash());
+        boolean maximizing = battle.isPlayerUnit(unit);
+
+        int best = order[0];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int depthBest = -1;
+            int bestScore = maximizing ? -INFINITY : INFINITY;
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            // Principal move from the previous iteration first
+            int[] rootOrder = moveToFront(order, best);
+            for (int index : rootOrder) {
+                BattleManager child = battle.copy(rollSeed);
+                plans.get(index).apply(child);
+                int score = alphaBeta(child, depth - 1, alpha, beta);
+                if (timedOut) break;
+                if (maximizing ? score > bestScore : score < bestScore) {
+                    bestScore = score;
+                    depthBest = index;
+                }
+                if (maximizing) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+            }
+            if (timedOut) break;
+            best = depthBest;
+            if (Math.abs(bestScore) >= WIN_SCORE) break;
+        }
+        plans.get(best).apply(battle);
+    }
+
+    /** Minimax with the player side maximizing; scores are from the player side's view. */
+    private int alphaBeta(BattleManager state, int depth, int alpha, int beta) {
+        if (isFinished(state) || depth == 0 || state.getCurrentUnit() == null) return evaluate(state, depth);
+        if ((++nodes & 0xFF) == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+            return 0;
+        }
+
+        long key = state.getZobristHash();
+        int ttMove = -1;
+        int slot = table.probe(key);
+        if (slot >= 0) {
+            ttMove = table.getMove(slot);
+            if (table.getDepth(slot) >= depth) {
+                int score = table.getScore(slot);
+                byte flag = table.getFlag(slot);
+                if (flag == TranspositionTable.EXACT) return score;
+                if (flag == TranspositionTable.LOWER_BOUND) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+        }
+
+        List<TurnPlan> plans = TurnPlan.generate(state);
+        boolean maximizing = state.isPlayerUnit(state.getCurrentUnit());
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestMove = -1;
+        for (int index : order(state, plans, ttMove)) {
+            BattleManager child = state.copy(rollSeed);
+            plans.get(index).apply(child);
+            int score = alphaBeta(child, depth - 1, alpha, beta);
+            if (timedOut) return 0;
+            if (maximizing ? score > best : score < best) {
+                best = score;
+                bestMove = index;
+            }
+            if (maximizing) alpha = Math.max(alpha, score);
+            else beta = Math.min(beta, score);
+            if (alpha >= beta) break;
+        }
+
+        byte flag = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= originalBeta ? TranspositionTable.LOWER_BOUND
+                : TranspositionTable.EXACT;
+        table.store(key, depth, best, flag, bestMove);
+        return best;
+    }
+
+    /** Wins are worth more the sooner they come, i.e. the more depth is left. */
+    private static int evaluate(BattleManager state, int depthLeft) {
+        if (state.getState() == BattleState.VICTORY) return WIN_SCORE + depthLeft;
+        if (state.getState() == BattleState.DEFEAT) return -WIN_SCORE - depthLeft;
+        double player = healthShare(state.getPlayerTeam().getMembers());
+        double enemy = healthShare(state.getEnemyTeam().getMembers());
+        return (int) Math.round((player - enemy) * HEALTH_SCALE);
+    }
+
+    private static double healthShare(List<Combatant> members) {
+        if (members.isEmpty()) return 0;
+        double sum = 0;
+        for (Combatant c : members) sum += (double) c.getHp() / c.getMaxHp();
+        return sum / members.size();
+    }
+
+    private static boolean isFinished(BattleManager state) {
+        return state.getState() == BattleState.VICTORY || state.getState() == BattleState.DEFEAT;
+    }
+
+    /**
+     * Move ordering: the table's move, then strikes ranked by {@link AIController#pickBestTarget}
+     * (techniques by power before basic attacks), then advancing, then holding.
+     */
+    private static int[] order(BattleManager state, List<TurnPlan> plans, int ttMove) {
+        Combatant unit = state.getCurrentUnit();
+        List<Combatant> roster = state.getRoster();
+        List<CursedTechnique> techs = state.getAllTechniquesForUnit(unit);
+
+        int[] targetRank = new int[roster.size()];
+        Arrays.fill(targetRank, Integer.MAX_VALUE);
+        List<Combatant> remaining = new ArrayList<>();
+        for (TurnPlan plan : plans) {
+            if (plan.isStrike() && !remaining.contains(roster.get(plan.target))) {
+                remaining.add(roster.get(plan.target));
+            }
+        }
+        for (int rank = 0; !remaining.isEmpty(); rank++) {
+            Combatant next = AIController.pickBestTarget(state, remaining, unit, null);
+            targetRank[roster.indexOf(next)] = rank;
+            remaining.remove(next);
+        }
+
+        Integer[] indices = new Integer[plans.size()];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        Arrays.sort(indices, (a, b) -> {
+            if (a == ttMove || b == ttMove) return a == ttMove ? -1 : 1;
+            TurnPlan pa = plans.get(a);
+            TurnPlan pb = plans.get(b);
+            if (pa.isStrike() != pb.isStrike()) return pa.isStrike() ? -1 : 1;
+            if (!pa.isStrike()) return Integer.compare(a, b);
+            int byTarget = Integer.compare(targetRank[pa.target], targetRank[pb.target]);
+            if (byTarget != 0) return byTarget;
+            return Integer.compare(power(techs, pb), power(techs, pa));
+        });
+
+        int[] order = new int[indices.length];
+        for (int i = 0; i < order.length; i++) order[i] = indices[i];
+        return order;
+    }
+
+    private static int power(List<CursedTechnique> techs, TurnPlan plan) {
+        return plan.technique >= 0 ? AIController.techniquePower(techs.get(plan.technique)) : -1;
+    }
+
+    private static int[] moveToFront(int[] order, int first) {
+        int[] result = new int[order.length];
+        result[0] = first;
+        int i = 1;
+        for (int index : order) {
+            if (index != first) result[i++] = index;
+        }
+        return result;
+    }
+}
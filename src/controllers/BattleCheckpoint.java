@@ -0,0 +1,41 @@
+package controllers;
+
+/**
+ * Состояние боя на начало раунда: HP, ПЭ, позиции, перезарядки и очередь ходов всех юнитов
+ * в порядке {@link BattleManager#getRoster()}. Юнит без позиции хранит x = y = -1, юнит
+ * вне очереди — смещение хода -1.
+ */
+public class BattleCheckpoint {
+
+    private final int round;
+    private final int[] hp;
+    private final int[] cursedEnergy;
+    private final int[] x;
+    private final int[] y;
+    private final int[][] cooldowns;
+    private final int[] turnOffset;
+    private final int[] turnSpeed;
+
+    public BattleCheckpoint(int round, int[] hp, int[] cursedEnergy, int[] x, int[] y, int[][] cooldowns,
+                            int[] turnOffset, int[] turnSpeed) {
+        this.round        = round;
+        this.hp           = hp;
+        this.cursedEnergy = cursedEnergy;
+        this.x            = x;
+        this.y            = y;
+        this.cooldowns    = cooldowns;
+        this.turnOffset   = turnOffset;
+        this.turnSpeed    = turnSpeed;
+    }
+
+    public int getRound()               { return round; }
+    public int getUnitCount()           { return hp.length; }
+    public int getHp(int unit)          { return hp[unit]; }
+    public int getCursedEnergy(int unit) { return cursedEnergy[unit]; }
+    public int getX(int unit)           { return x[unit]; }
+    public int getY(int unit)           { return y[unit]; }
+    public int[] getCooldowns(int unit) { return cooldowns[unit].clone(); }
+    /** Ticks from the round's start to the unit's next turn; 0 for every queued unit in ROUNDS mode. */
+    public int getTurnOffset(int unit)  { return turnOffset[unit]; }
+    public int getTurnSpeed(int unit)   { return turnSpeed[unit]; }
+}
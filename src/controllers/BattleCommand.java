@@ -0,0 +1,74 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+/**
+ * Одно действие ИИ, которое можно применить к бою позже и в другом потоке.
+ * Юниты и техники адресуются индексами в ростере, поэтому команда, записанная
+ * на копии боя, исполняется на оригинале.
+ */
+public final class BattleCommand {
+
+    public enum Type { MOVE, ATTACK, TECHNIQUE, DEFEND, END_TURN }
+
+    private final Type type;
+    private final Position position;
+    private final int technique;
+    private final int target;
+
+    private BattleCommand(Type type, Position position, int technique, int target) {
+        this.type = type;
+        this.position = position;
+        this.technique = technique;
+        this.target = target;
+    }
+
+    public static BattleCommand move(Position to)                  { return new BattleCommand(Type.MOVE, to, -1, -1); }
+    public static BattleCommand attack(int target)                 { return new BattleCommand(Type.ATTACK, null, -1, target); }
+    public static BattleCommand technique(int technique, int target) {
+        return new BattleCommand(Type.TECHNIQUE, null, technique, target);
+    }
+    public static BattleCommand defend()                           { return new BattleCommand(Type.DEFEND, null, -1, -1); }
+    public static BattleCommand endTurn()                          { return new BattleCommand(Type.END_TURN, null, -1, -1); }
+
+    /** Applies the command to the current unit of {@code battle}. */
+    public void execute(BattleManager battle) {
+        switch (type) {
+            case MOVE:
+                battle.moveUnit(position);
+                break;
+            case ATTACK:
+                battle.basicAttack(battle.getRoster().get(target));
+                break;
+            case TECHNIQUE: {
+                Combatant user = battle.getCurrentUnit();
+                CursedTechnique tech = battle.getAllTechniquesForUnit(user).get(technique);
+                battle.useTechnique(tech, battle.getRoster().get(target));
+                break;
+            }
+            case DEFEND:
+                battle.defend();
+                break;
+            case END_TURN:
+                battle.endTurn();
+                break;
+        }
+    }
+
+    public Type getType()         { return type; }
+    public Position getPosition() { return position; }
+    public int getTechnique()     { return technique; }
+    public int getTarget()        { return target; }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE:      return "MOVE " + position;
+            case ATTACK:    return "ATTACK #" + target;
+            case TECHNIQUE: return "TECHNIQUE " + technique + " #" + target;
+            default:        return type.name();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package controllers;
 
 import enums.BattleState;
-import enums.TileType;
+import enums.TurnMode;
 import models.*;
 import models.CursedEnergyHolder;
 import models.TechTree;
+import systems.RandomService;
 import techniques.CursedTechnique;
+import techniques.TechniqueRegistry;
+import utils.GridMask;
 import utils.Position;
 
 import java.util.*;
@@ -13,13 +16,18 @@ import java.util.stream.Collectors;
 
 public class BattleManager {
 
-    public static final int GRID_SIZE = 10;
+    /** Grid side of battles that are not given their own terrain. */
+    public static final int DEFAULT_GRID_SIZE = 10;
 
-    private final Tile[][] grid;
+    private final Terrain terrain;
+    private final int width;
+    private final int height;
     private final Map<Combatant, Position> unitPositions;
     private final Map<Position, Combatant> positionToUnit;
-    private final List<Combatant> turnOrder;
-    private int currentTurnIndex;
+    private TurnMode turnMode = TurnMode.ROUNDS;
+    private TurnScheduler scheduler = new TurnScheduler(TurnMode.ROUNDS, 0, 1);
+    /** Slot of the unit whose turn it is, or -1 between turns. */
+    private int currentSlot = -1;
     private int roundNumber;
     private BattleState state;
     private SorcererTeam playerTeam;
@@ -29,104 +37,476 @@ public class BattleManager {
     private boolean currentUnitActed;
     private final List<BattleListener> listeners;
 
-    private final Map<CursedTechnique, Integer> cooldowns;
+    /** Rounds left per roster slot and technique ID; rows are sized to the registry. */
+    private int[][] cooldowns = new int[0][];
+
+    /** The terrain's own mask, shared with copies; terrain must not change mid-battle. */
+    private final GridMask walkable;
+    private final GridMask occupancy;
+    private final GridMask playerUnits;
+    private final GridMask enemyUnits;
+
+    private int boardVersion;
+    private final Map<Combatant, Reachability> reachabilityCache = new HashMap<>();
+
+    /** Units by dense battle index; a unit's own index is only trusted if it points back here. */
+    private Combatant[] slotUnits = new Combatant[0];
+    private int[] hashedHp = new int[0];
+    private int[] hashedCe = new int[0];
+    private long zobrist;
+
+    private int[] rawDamage;
+    private int rawDamageTechVersion;
+    private DamageMatrix damageMatrix;
+    private int damageVersion;
+    private int damageMatrixVersion = -1;
+
+    private final boolean publishSnapshots;
+    private volatile BattleSnapshot snapshot;
+    private int snapshotTurnOrderVersion = -1;
+
+    private AIStrategy playerStrategy;
+    private AIStrategy enemyStrategy;
+    private int turnsStarted;
 
     private TechTree techTree;
 
     private int maxRounds = 0;
 
-    private final Random random = new Random();
+    private final long seed;
+    private final long combatSeed;
+    private SplittableRandom random;
+    private int rollsThisRound;
 
-    private static final Position[] PLAYER_STARTS = {
-            new Position(1, 2), new Position(1, 4), new Position(1, 6),
-            new Position(0, 3), new Position(0, 5)
-    };
-    private static final Position[] ENEMY_STARTS = {
-            new Position(8, 2), new Position(8, 4), new Position(8, 6),
-            new Position(9, 3), new Position(9, 5)
+    /** Start tiles as {column from own edge, row offset from the middle}. */
+    private static final int[][] START_OFFSETS = {
+            {1, -3}, {1, -1}, {1, 1}, {0, -2}, {0, 0}
     };
 
     public BattleManager() {
-        grid = new Tile[GRID_SIZE][GRID_SIZE];
+        this(new SplittableRandom().nextLong());
+    }
+
+    public BattleManager(long seed) {
+        this(seed, new Terrain(DEFAULT_GRID_SIZE, DEFAULT_GRID_SIZE));
+    }
+
+    public BattleManager(long seed, Terrain terrain) {
+        this.seed = seed;
+        this.terrain = terrain;
+        this.width = terrain.getWidth();
+        this.height = terrain.getHeight();
+        this.walkable = terrain.getWalkable();
+        this.occupancy = new GridMask(width, height);
+        this.playerUnits = new GridMask(width, height);
+        this.enemyUnits = new GridMask(width, height);
+        this.combatSeed = new RandomService(seed).stream(RandomService.Stream.COMBAT).nextLong();
+        this.publishSnapshots = true;
+        reseedForRound(0);
         unitPositions = new HashMap<>();
         positionToUnit = new HashMap<>();
-        turnOrder = new ArrayList<>();
         defendingUnits = new HashSet<>();
         listeners = new ArrayList<>();
-        cooldowns = new HashMap<>();
         state = BattleState.PREPARING;
         roundNumber = 0;
-        initGrid();
     }
 
-    private void initGrid() {
-        for (int x = 0; x < GRID_SIZE; x++) {
-            for (int y = 0; y < GRID_SIZE; y++) {
-                grid[x][y] = new Tile(TileType.PLAINS);
-            }
+    /**
+     * Listener-free copy for search and rollouts. Units are copied, the board and
+     * turn state are carried over, and techniques and the tech tree stay shared.
+     */
+    private BattleManager(BattleManager source, long combatSeed, boolean sameRolls) {
+        this.seed = source.seed;
+        this.combatSeed = combatSeed;
+        this.publishSnapshots = false;
+        this.terrain = source.terrain;
+        this.width = source.width;
+        this.height = source.height;
+        this.walkable = source.walkable;
+        this.occupancy = new GridMask(width, height);
+        this.playerUnits = new GridMask(width, height);
+        this.enemyUnits = new GridMask(width, height);
+        this.listeners = new ArrayList<>();
+        this.playerTeam = source.playerTeam.copy();
+        this.enemyTeam = source.enemyTeam.copy();
+
+        Map<Combatant, Combatant> copies = new IdentityHashMap<>();
+        mapCopies(source.playerTeam, playerTeam, copies);
+        mapCopies(source.enemyTeam, enemyTeam, copies);
+
+        unitPositions = new HashMap<>();
+        positionToUnit = new HashMap<>();
+        for (Map.Entry<Combatant, Position> e : source.unitPositions.entrySet()) {
+            Combatant unit = copies.get(e.getKey());
+            unitPositions.put(unit, e.getValue());
+            positionToUnit.put(e.getValue(), unit);
+        }
+        defendingUnits = new HashSet<>();
+        for (Combatant unit : source.defendingUnits) defendingUnits.add(copies.get(unit));
+        assignSlots();
+        cooldowns = new int[source.cooldowns.length][];
+        for (int i = 0; i < cooldowns.length; i++) cooldowns[i] = source.cooldowns[i].clone();
+        System.arraycopy(source.hashedHp, 0, hashedHp, 0, hashedHp.length);
+        System.arraycopy(source.hashedCe, 0, hashedCe, 0, hashedCe.length);
+        zobrist = source.zobrist;
+        rawDamage = source.rawDamage;
+        rawDamageTechVersion = source.rawDamageTechVersion;
+        damageMatrix = source.damageMatrix;
+        damageVersion = source.damageVersion;
+        damageMatrixVersion = source.damageMatrixVersion;
+
+        occupancy.copyFrom(source.occupancy);
+        playerUnits.copyFrom(source.playerUnits);
+        enemyUnits.copyFrom(source.enemyUnits);
+        boardVersion = source.boardVersion;
+
+        turnMode = source.turnMode;
+        scheduler = new TurnScheduler(source.scheduler);
+        currentSlot = source.currentSlot;
+        roundNumber = source.roundNumber;
+        state = source.state;
+        currentUnitMoved = source.currentUnitMoved;
+        currentUnitActed = source.currentUnitActed;
+        techTree = source.techTree;
+        maxRounds = source.maxRounds;
+
+        reseedForRound(roundNumber);
+        if (sameRolls) {
+            while (rollsThisRound < source.rollsThisRound) rollChance(0);
         }
     }
 
+    private static void mapCopies(SorcererTeam original, SorcererTeam copy, Map<Combatant, Combatant> copies) {
+        List<Combatant> from = original.getMembers();
+        List<Combatant> to = copy.getMembers();
+        for (int i = 0; i < from.size(); i++) copies.put(from.get(i), to.get(i));
+    }
+
+    /** Exact copy of the battle, including the upcoming combat rolls. */
+    public BattleManager copy() {
+        return new BattleManager(this, combatSeed, true);
+    }
+
+    /**
+     * Copy whose future combat rolls come from {@code rollSeed} instead of the real
+     * battle's, so a search cannot peek at upcoming Black Flash procs.
+     */
+    public BattleManager copy(long rollSeed) {
+        return new BattleManager(this, rollSeed, false);
+    }
+
     public void initBattle(SorcererTeam player, SorcererTeam enemy) {
         this.playerTeam = player;
         this.enemyTeam = enemy;
+        assignSlots();
+
+        deploy(player.getAliveMembers(), true);
+        deploy(enemy.getAliveMembers(), false);
+
+        scheduler = new TurnScheduler(turnMode, slotUnits.length, 1);
+        snapshotTurnOrderVersion = -1;
+        scheduleTurns(1);
+        rehash();
+        invalidateDamage();
+        publishSnapshot();
+    }
 
-        List<Combatant> playerUnits = player.getAliveMembers();
-        for (int i = 0; i < playerUnits.size() && i < PLAYER_STARTS.length; i++) {
-            placeUnit(playerUnits.get(i), PLAYER_STARTS[i]);
+    /**
+     * Player units start at the left edge and enemies at the right, around the middle row.
+     * Units beyond the formation take the nearest free tiles around its last spot.
+     */
+    private void deploy(List<Combatant> units, boolean player) {
+        for (int i = 0; i < units.size(); i++) {
+            int[] offset = START_OFFSETS[Math.min(i, START_OFFSETS.length - 1)];
+            int column = offset[0];
+            Position start = startTile(player ? column : width - 1 - column, height / 2 + offset[1]);
+            if (start != null) placeUnit(units.get(i), start);
         }
+    }
 
-        List<Combatant> enemyUnits = enemy.getAliveMembers();
-        for (int i = 0; i < enemyUnits.size() && i < ENEMY_STARTS.length; i++) {
-            placeUnit(enemyUnits.get(i), ENEMY_STARTS[i]);
+    /** The tile nearest to (x, y) that is walkable and free, searching outwards ring by ring. */
+    private Position startTile(int x, int y) {
+        x = Math.max(0, Math.min(width - 1, x));
+        y = Math.max(0, Math.min(height - 1, y));
+        for (int r = 0; r < Math.max(width, height); r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != r) continue;
+                    int px = x + dx;
+                    int py = y + dy;
+                    if (walkable.get(px, py) && !occupancy.get(px, py)) return Position.of(px, py);
+                }
+            }
         }
+        return null;
+    }
 
-        calculateTurnOrder();
+    /**
+     * Gives every roster unit its battle index and side. Slots address units in the
+     * Zobrist keys, the damage matrix and the cooldown table.
+     */
+    private void assignSlots() {
+        List<Combatant> roster = getRoster();
+        int players = playerTeam.getSize();
+        int count = roster.size();
+        slotUnits = new Combatant[count];
+        for (int slot = 0; slot < count; slot++) {
+            Combatant unit = roster.get(slot);
+            slotUnits[slot] = unit;
+            unit.assignBattleSlot(slot, slot < players ? Combatant.FACTION_PLAYER : Combatant.FACTION_ENEMY);
+        }
+        cooldowns = new int[count][TechniqueRegistry.size()];
+        hashedHp = new int[count];
+        hashedCe = new int[count];
+    }
+
+    /** Battle index of {@code unit}, or -1 if it is not fighting in this battle. */
+    private int slotOf(Combatant unit) {
+        int slot = unit.getBattleIndex();
+        return slot >= 0 && slot < slotUnits.length && slotUnits[slot] == unit ? slot : -1;
     }
 
     private void placeUnit(Combatant unit, Position pos) {
         unitPositions.put(unit, pos);
         positionToUnit.put(pos, unit);
+        occupancy.set(pos.getX(), pos.getY());
+        (isPlayerUnit(unit) ? playerUnits : enemyUnits).set(pos.getX(), pos.getY());
+        boardVersion++;
+        int slot = slotOf(unit);
+        if (slot >= 0) zobrist ^= ZobristKeys.position(slot, pos.getX(), pos.getY());
     }
 
-    private void calculateTurnOrder() {
-        turnOrder.clear();
-        List<Combatant> allAlive = new ArrayList<>();
-        allAlive.addAll(playerTeam.getAliveMembers());
-        allAlive.addAll(enemyTeam.getAliveMembers());
-        allAlive.removeIf(c -> !unitPositions.containsKey(c));
-        allAlive.sort((a, b) -> b.getSpeed() - a.getSpeed());
-        turnOrder.addAll(allAlive);
+    private void removeFromBoard(Combatant unit, Position pos) {
+        positionToUnit.remove(pos);
+        occupancy.clear(pos.getX(), pos.getY());
+        playerUnits.clear(pos.getX(), pos.getY());
+        enemyUnits.clear(pos.getX(), pos.getY());
+        boardVersion++;
+        int slot = slotOf(unit);
+        if (slot >= 0) zobrist ^= ZobristKeys.position(slot, pos.getX(), pos.getY());
+    }
+
+    /** Recomputes the Zobrist hash of positions, HP, CE, cooldowns and guards from scratch. */
+    private void rehash() {
+        zobrist = 0L;
+        for (int slot = 0; slot < slotUnits.length; slot++) {
+            Combatant unit = slotUnits[slot];
+            Position pos = unitPositions.get(unit);
+            if (pos != null) zobrist ^= ZobristKeys.position(slot, pos.getX(), pos.getY());
+            hashedHp[slot] = ZobristKeys.hpBucket(unit);
+            hashedCe[slot] = ZobristKeys.ceBucket(getUnitCE(unit));
+            zobrist ^= ZobristKeys.hp(slot, hashedHp[slot]) ^ ZobristKeys.ce(slot, hashedCe[slot]);
+            if (defendingUnits.contains(unit)) zobrist ^= ZobristKeys.defending(slot);
+        }
+        for (int slot = 0; slot < cooldowns.length; slot++) {
+            int[] row = cooldowns[slot];
+            for (int id = 0; id < row.length; id++) zobrist ^= ZobristKeys.cooldown(slot, id, row[id]);
+        }
+    }
+
+    /** Re-hashes a unit's HP and CE buckets after they may have changed. */
+    private void updateUnitHash(Combatant unit) {
+        int slot = slotOf(unit);
+        if (slot < 0) return;
+        int hp = ZobristKeys.hpBucket(unit);
+        int ce = ZobristKeys.ceBucket(getUnitCE(unit));
+        if (hp != hashedHp[slot]) {
+            zobrist ^= ZobristKeys.hp(slot, hashedHp[slot]) ^ ZobristKeys.hp(slot, hp);
+            hashedHp[slot] = hp;
+        }
+        if (ce != hashedCe[slot]) {
+            zobrist ^= ZobristKeys.ce(slot, hashedCe[slot]) ^ ZobristKeys.ce(slot, ce);
+            hashedCe[slot] = ce;
+        }
+    }
+
+    private void setCooldown(Combatant unit, CursedTechnique tech, int remaining) {
+        int slot = slotOf(unit);
+        if (slot < 0) return;
+        int id = tech.getId();
+        int[] row = cooldowns[slot];
+        if (id >= row.length) row = cooldowns[slot] = Arrays.copyOf(row, TechniqueRegistry.size());
+        zobrist ^= ZobristKeys.cooldown(slot, id, row[id]) ^ ZobristKeys.cooldown(slot, id, remaining);
+        row[id] = remaining;
+    }
+
+    private void setDefending(Combatant unit, boolean defending) {
+        boolean changed = defending ? defendingUnits.add(unit) : defendingUnits.remove(unit);
+        int slot = slotOf(unit);
+        if (changed && slot >= 0) zobrist ^= ZobristKeys.defending(slot);
+        if (changed) damageVersion++;
+    }
+
+    /** Stats or research changed: the raw damage table has to be measured again. */
+    private void invalidateDamage() {
+        rawDamage = null;
+        damageVersion++;
+    }
+
+    private DamageMatrix damageMatrix() {
+        if (damageMatrix == null || damageMatrixVersion != damageVersion
+                || (techTree != null && rawDamageTechVersion != techTree.getVersion())) {
+            List<Combatant> roster = getRoster();
+            int techVersion = techTree != null ? techTree.getVersion() : 0;
+            if (rawDamage == null || rawDamageTechVersion != techVersion) {
+                rawDamage = DamageMatrix.rawDamage(this, roster,
+                        techTree != null ? techTree.getDamageBonusPct() : 0.0);
+                rawDamageTechVersion = techVersion;
+            }
+            damageMatrix = DamageMatrix.build(this, roster, rawDamage);
+            damageMatrixVersion = damageVersion;
+        }
+        return damageMatrix;
+    }
+
+    /**
+     * Damage {@code tech} ({@code null} for the basic attack) would land on {@code target}
+     * right now, without Black Flash and before the target's remaining HP caps it.
+     */
+    public int getDamageEstimate(Combatant attacker, Combatant target, CursedTechnique tech) {
+        int action = damageAction(attacker, tech);
+        int a = slotOf(attacker), t = slotOf(target);
+        if (action < 0 || a < 0 || t < 0) return 0;
+        return damageMatrix().getDamage(a, t, action);
+    }
+
+    /**
+     * Whether the action kills {@code target} outright. A defending target's technique
+     * damage is only halved after the hit lands, so a full hit above its HP still kills.
+     */
+    public boolean isLethal(Combatant attacker, Combatant target, CursedTechnique tech) {
+        int action = damageAction(attacker, tech);
+        int a = slotOf(attacker), t = slotOf(target);
+        if (action < 0 || a < 0 || t < 0) return false;
+        return damageMatrix().getLethalDamage(a, t, action) >= target.getHp();
+    }
+
+    /** As {@link #getDamageEstimate}, plus the expected Black Flash bonus. */
+    public double getExpectedDamage(Combatant attacker, Combatant target, CursedTechnique tech) {
+        int action = damageAction(attacker, tech);
+        int a = slotOf(attacker), t = slotOf(target);
+        if (action < 0 || a < 0 || t < 0) return 0.0;
+        return damageMatrix().getExpectedDamage(a, t, action);
+    }
+
+    private int damageAction(Combatant attacker, CursedTechnique tech) {
+        if (tech == null) return DamageMatrix.BASIC;
+        int idx = getAllTechniquesForUnit(attacker).indexOf(tech);
+        return idx >= 0 && idx < ZobristKeys.MAX_TECHNIQUES ? 1 + idx : -1;
+    }
+
+    /**
+     * Latest published snapshot; safe to read from any thread without locking.
+     * Search copies do not publish, so for them a fresh snapshot is built on demand.
+     */
+    public BattleSnapshot getSnapshot() {
+        BattleSnapshot current = snapshot;
+        if (publishSnapshots || playerTeam == null) return current;
+        return buildSnapshot(null);
+    }
+
+    private void publishSnapshot() {
+        if (publishSnapshots) snapshot = buildSnapshot(snapshot);
+    }
+
+    /** Builds the next snapshot, reusing every part of {@code previous} that has not changed. */
+    private BattleSnapshot buildSnapshot(BattleSnapshot previous) {
+        List<Combatant> roster = getRoster();
+        BattleSnapshot.UnitState[] before = previous != null ? previous.units() : null;
+        if (before != null && before.length != roster.size()) before = null;
+
+        BattleSnapshot.UnitState[] units = new BattleSnapshot.UnitState[roster.size()];
+        boolean unitsChanged = before == null;
+        for (int i = 0; i < units.length; i++) {
+            Combatant unit = roster.get(i);
+            int ce = getUnitCE(unit);
+            Position pos = unitPositions.get(unit);
+            boolean defending = defendingUnits.contains(unit);
+            if (before != null && before[i].matches(unit, ce, pos, defending)) {
+                units[i] = before[i];
+            } else {
+                units[i] = new BattleSnapshot.UnitState(unit, i, isPlayerUnit(unit), ce, pos, defending);
+                unitsChanged = true;
+            }
+        }
+        if (!unitsChanged) units = before;
+
+        int[] order;
+        if (previous != null && before != null && snapshotTurnOrderVersion == scheduler.getVersion()) {
+            order = previous.turnOrder();
+        } else {
+            order = scheduler.order();
+        }
+        if (publishSnapshots) snapshotTurnOrderVersion = scheduler.getVersion();
+
+        Combatant current = getCurrentUnit();
+        return new BattleSnapshot(previous != null ? previous.getVersion() + 1 : 0, roundNumber, state,
+                current != null ? roster.indexOf(current) : -1, currentUnitMoved, currentUnitActed,
+                units, order, width, height);
+    }
+
+    /**
+     * Zobrist hash of the battle state, maintained incrementally: unit positions,
+     * HP and CE buckets, cooldowns, guards, and whose turn it is.
+     */
+    public long getZobristHash() {
+        long hash = zobrist;
+        Combatant current = getCurrentUnit();
+        int slot = current != null ? slotOf(current) : -1;
+        if (slot >= 0) hash ^= ZobristKeys.turn(slot);
+        if (currentUnitMoved) hash ^= ZobristKeys.MOVED;
+        if (currentUnitActed) hash ^= ZobristKeys.ACTED;
+        return hash;
+    }
+
+    /**
+     * Queues every living unit on the board for {@code round}. Afterwards the scheduler
+     * is only adjusted: units move back in the queue as they act and leave it when they die.
+     */
+    private void scheduleTurns(int round) {
+        scheduler.reset(round);
+        currentSlot = -1;
+        for (int slot = 0; slot < slotUnits.length; slot++) {
+            Combatant unit = slotUnits[slot];
+            if (unit.isAlive() && unitPositions.containsKey(unit)) {
+                scheduler.addAtRoundStart(slot, unit.getSpeed());
+            }
+        }
     }
 
     public void startBattle() {
         roundNumber = 1;
-        currentTurnIndex = 0;
+        currentSlot = -1;
+        reseedForRound(roundNumber);
+        publishSnapshot();
         for (BattleListener l : listeners) l.onBattleStarted();
         fireMessage("=== Battle started! Round 1 ===");
         startCurrentTurn();
     }
 
     private void startCurrentTurn() {
-        while (currentTurnIndex < turnOrder.size() && !turnOrder.get(currentTurnIndex).isAlive()) {
-            currentTurnIndex++;
+        int next = scheduler.peek();
+        while (next >= 0 && !slotUnits[next].isAlive()) {
+            scheduler.remove(next);
+            next = scheduler.peek();
         }
 
-        if (currentTurnIndex >= turnOrder.size()) {
+        if (next < 0) {
             roundNumber++;
-            calculateTurnOrder();
-            currentTurnIndex = 0;
-            defendingUnits.clear();
+            reseedForRound(roundNumber);
+            scheduler.nextRound();
+            for (Combatant unit : new ArrayList<>(defendingUnits)) setDefending(unit, false);
             tickCooldowns();
 
             if (maxRounds > 0 && roundNumber > maxRounds) {
                 state = BattleState.DEFEAT;
                 fireMessage("=== Время вышло! Миссия провалена! ===");
+                publishSnapshot();
                 for (BattleListener l : listeners) l.onBattleEnded(BattleState.DEFEAT);
                 return;
             }
 
-            if (turnOrder.isEmpty()) {
+            if (scheduler.isEmpty()) {
                 checkBattleEnd();
                 return;
             }
@@ -140,21 +520,156 @@ public class BattleManager {
             return;
         }
 
-        Combatant current = turnOrder.get(currentTurnIndex);
+        currentSlot = next;
+        Combatant current = slotUnits[next];
         currentUnitMoved = false;
         currentUnitActed = false;
+        turnsStarted++;
 
         state = isPlayerUnit(current) ? BattleState.PLAYER_TURN : BattleState.ENEMY_TURN;
 
+        publishSnapshot();
         for (BattleListener l : listeners) l.onTurnStarted(current);
     }
 
+    /**
+     * Combat rolls restart from a per-round seed, so a battle can be resumed
+     * from any round-start checkpoint and roll exactly the same numbers.
+     */
+    private void reseedForRound(int round) {
+        random = new SplittableRandom(RandomService.deriveSeed(combatSeed, round));
+        rollsThisRound = 0;
+    }
+
+    /** Percent roll; counted so {@link #copy()} can replay the round's stream. */
+    private boolean rollChance(int percent) {
+        rollsThisRound++;
+        return random.nextInt(100) < percent;
+    }
+
+    /** Captures the round-start state; only meaningful before the first action of a round. */
+    public BattleCheckpoint captureCheckpoint() {
+        List<Combatant> roster = getRoster();
+        int n = roster.size();
+        int[] hp = new int[n];
+        int[] ce = new int[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int[][] cds = new int[n][];
+        int[] offsets = new int[n];
+        int[] speeds = new int[n];
+        for (int i = 0; i < n; i++) {
+            Combatant unit = roster.get(i);
+            int slot = slotOf(unit);
+            offsets[i] = slot >= 0 ? scheduler.offsetOf(slot) : -1;
+            speeds[i] = slot >= 0 ? scheduler.speedOf(slot) : unit.getSpeed();
+            hp[i] = unit.getHp();
+            ce[i] = getUnitCE(unit);
+            Position pos = unitPositions.get(unit);
+            xs[i] = pos != null ? pos.getX() : -1;
+            ys[i] = pos != null ? pos.getY() : -1;
+            List<CursedTechnique> techs = getAllTechniquesForUnit(unit);
+            cds[i] = new int[techs.size()];
+            for (int t = 0; t < techs.size(); t++) {
+                cds[i][t] = getCooldownRemaining(unit, techs.get(t));
+            }
+        }
+        return new BattleCheckpoint(roundNumber, hp, ce, xs, ys, cds, offsets, speeds);
+    }
+
+    /**
+     * Rewinds or fast-forwards an initialised battle to the start of the checkpoint's
+     * round and starts that round's first turn. The battle must hold the same rosters
+     * the checkpoint was captured from.
+     */
+    public void restoreCheckpoint(BattleCheckpoint checkpoint) {
+        List<Combatant> roster = getRoster();
+        if (roster.size() != checkpoint.getUnitCount()) {
+            throw new IllegalArgumentException("Checkpoint roster size " + checkpoint.getUnitCount()
+                    + " does not match battle roster size " + roster.size());
+        }
+        unitPositions.clear();
+        positionToUnit.clear();
+        occupancy.clearAll();
+        playerUnits.clearAll();
+        enemyUnits.clearAll();
+        boardVersion++;
+        for (int[] row : cooldowns) Arrays.fill(row, 0);
+        defendingUnits.clear();
+        for (int i = 0; i < roster.size(); i++) {
+            Combatant unit = roster.get(i);
+            unit.restoreHp(checkpoint.getHp(i));
+            if (unit instanceof CursedEnergyHolder) {
+                ((CursedEnergyHolder) unit).setCursedEnergy(checkpoint.getCursedEnergy(i));
+            }
+            if (unit.isAlive() && checkpoint.getX(i) >= 0) {
+                placeUnit(unit, Position.of(checkpoint.getX(i), checkpoint.getY(i)));
+            }
+            List<CursedTechnique> techs = getAllTechniquesForUnit(unit);
+            int[] cds = checkpoint.getCooldowns(i);
+            for (int t = 0; t < techs.size() && t < cds.length; t++) {
+                if (cds[t] > 0) setCooldown(unit, techs.get(t), cds[t]);
+            }
+        }
+        roundNumber = checkpoint.getRound();
+        reseedForRound(roundNumber);
+        // Initiative carries over between rounds, so the queue comes from the checkpoint
+        scheduler.reset(roundNumber);
+        currentSlot = -1;
+        for (int i = 0; i < roster.size(); i++) {
+            Combatant unit = roster.get(i);
+            int slot = slotOf(unit);
+            if (slot >= 0 && checkpoint.getTurnOffset(i) >= 0 && unit.isAlive() && unitPositions.containsKey(unit)) {
+                scheduler.restore(slot, checkpoint.getTurnOffset(i), checkpoint.getTurnSpeed(i));
+            }
+        }
+        rehash();
+        damageVersion++;
+        state = BattleState.PREPARING;
+        startCurrentTurn();
+    }
+
+    /** Player team members followed by enemy team members, in team order. */
+    public List<Combatant> getRoster() {
+        List<Combatant> roster = new ArrayList<>(playerTeam.getMembers());
+        roster.addAll(enemyTeam.getMembers());
+        return roster;
+    }
+
+    /** Strategy that plays {@code unit}'s side, or {@code null} if a human controls it. */
+    public AIStrategy getStrategy(Combatant unit) {
+        return isPlayerUnit(unit) ? playerStrategy : enemyStrategy;
+    }
+
+    public void setPlayerStrategy(AIStrategy strategy) { this.playerStrategy = strategy; }
+    public void setEnemyStrategy(AIStrategy strategy)  { this.enemyStrategy = strategy; }
+
+    /**
+     * Lets the current unit's side strategy play its turn. Ends the turn if the
+     * strategy forgot to; returns false when no strategy controls the unit.
+     */
+    public boolean playStrategyTurn() {
+        Combatant unit = getCurrentUnit();
+        AIStrategy strategy = unit != null ? getStrategy(unit) : null;
+        if (strategy == null) return false;
+        int turnsBefore = turnsStarted;
+        strategy.playTurn(this);
+        if (turnsStarted == turnsBefore && state != BattleState.VICTORY && state != BattleState.DEFEAT) {
+            endTurn();
+        }
+        return true;
+    }
+
     public void endTurn() {
-        currentTurnIndex++;
+        if (currentSlot >= 0) {
+            scheduler.acted(currentSlot, slotUnits[currentSlot].getSpeed());
+            currentSlot = -1;
+        }
 
         BattleState endState = checkBattleEnd();
         if (endState == BattleState.VICTORY || endState == BattleState.DEFEAT) {
             state = endState;
+            publishSnapshot();
             for (BattleListener l : listeners) l.onBattleEnded(state);
             return;
         }
@@ -166,42 +681,29 @@ public class BattleManager {
         if (currentUnitMoved) return Collections.emptyList();
         Combatant unit = getCurrentUnit();
         if (unit == null) return Collections.emptyList();
+        return getReachability(unit).getPositions();
+    }
 
+    /**
+     * Reachable tiles and paths for {@code unit}, computed once per board version
+     * and shared by movement validation, the UI highlight and the AI.
+     */
+    public Reachability getReachability(Combatant unit) {
         Position start = unitPositions.get(unit);
         int range = unit.getMovementRange();
+        Reachability cached = reachabilityCache.get(unit);
+        if (cached != null && cached.isValidFor(unit, start, range, boardVersion)) return cached;
 
-        Set<Position> visited = new HashSet<>();
-        Queue<Position> queue = new LinkedList<>();
-        Map<Position, Integer> distances = new HashMap<>();
-
-        queue.add(start);
-        distances.put(start, 0);
-        visited.add(start);
-
-        List<Position> movable = new ArrayList<>();
-
-        while (!queue.isEmpty()) {
-            Position current = queue.poll();
-            int dist = distances.get(current);
-
-            if (dist > 0 && !positionToUnit.containsKey(current)) {
-                movable.add(current);
-            }
-
-            if (dist < range) {
-                for (Position neighbor : current.getNeighbors()) {
-                    if (isValidPosition(neighbor) && !visited.contains(neighbor)
-                            && grid[neighbor.getX()][neighbor.getY()].isWalkable()
-                            && !positionToUnit.containsKey(neighbor)) {
-                        visited.add(neighbor);
-                        distances.put(neighbor, dist + 1);
-                        queue.add(neighbor);
-                    }
-                }
-            }
-        }
+        Reachability result = new Reachability(unit, start, range, boardVersion, walkable, occupancy);
+        reachabilityCache.put(unit, result);
+        return result;
+    }
 
-        return movable;
+    /** Path the current unit would walk to {@code target}; empty if it cannot move there. */
+    public List<Position> getPathTo(Position target) {
+        Combatant unit = getCurrentUnit();
+        if (currentUnitMoved || unit == null) return Collections.emptyList();
+        return getReachability(unit).getPath(target);
     }
 
     public boolean moveUnit(Position target) {
@@ -209,15 +711,14 @@ public class BattleManager {
         Combatant unit = getCurrentUnit();
         if (unit == null) return false;
 
-        List<Position> movable = getMovablePositions();
-        if (!movable.contains(target)) return false;
+        if (!getReachability(unit).contains(target)) return false;
 
         Position from = unitPositions.get(unit);
-        positionToUnit.remove(from);
-        unitPositions.put(unit, target);
-        positionToUnit.put(target, unit);
+        removeFromBoard(unit, from);
+        placeUnit(unit, target);
         currentUnitMoved = true;
 
+        publishSnapshot();
         for (BattleListener l : listeners) l.onUnitMoved(unit, from, target);
         return true;
     }
@@ -227,21 +728,83 @@ public class BattleManager {
         Combatant unit = getCurrentUnit();
         if (unit == null) return Collections.emptyList();
 
-        Position pos = unitPositions.get(unit);
-        int range = unit.getAttackRange();
-        List<Combatant> enemies = isPlayerUnit(unit)
-                ? enemyTeam.getAliveMembers() : playerTeam.getAliveMembers();
+        return targetsInRange(unit, unit.getAttackRange());
+    }
 
-        List<Combatant> targets = new ArrayList<>();
-        for (Combatant enemy : enemies) {
+    private List<Combatant> targetsInRange(Combatant unit, int range) {
+        Position pos = unitPositions.get(unit);
+        int x0 = Math.max(0, pos.getX() - range);
+        int y0 = Math.max(0, pos.getY() - range);
+        GridMask inRange = new GridMask(Math.min(width - 1, pos.getX() + range) - x0 + 1,
+                                        Math.min(height - 1, pos.getY() + range) - y0 + 1);
+        inRange.copyWindow(isPlayerUnit(unit) ? enemyUnits : playerUnits, x0, y0);
+        if (inRange.isEmpty()) return Collections.emptyList();
+
+        List<Combatant> targets = new ArrayList<>(inRange.cardinality());
+        for (Combatant enemy : getOpposingTeam(unit).getAliveMembers()) {
             Position enemyPos = unitPositions.get(enemy);
-            if (enemyPos != null && pos.chebyshevDistance(enemyPos) <= range) {
+            if (enemyPos != null && inRange.get(enemyPos.getX() - x0, enemyPos.getY() - y0)) {
                 targets.add(enemy);
             }
         }
         return targets;
     }
 
+    /**
+     * Move-then-strike map for the current unit in one pass: for the basic attack and
+     * every usable technique, each enemy it can hit and the tiles it can hit it from.
+     */
+    public ThreatMap getThreatMap() {
+        Combatant unit = getCurrentUnit();
+        if (unit == null || currentUnitActed) {
+            return new ThreatMap(unit, unit != null ? unitPositions.get(unit) : null, Collections.emptyList());
+        }
+        Position origin = unitPositions.get(unit);
+
+        // Masks cover only the reachability window, not the whole grid
+        GridMask standable;
+        int x0;
+        int y0;
+        if (currentUnitMoved) {
+            standable = new GridMask(1, 1);
+            standable.set(0, 0);
+            x0 = origin.getX();
+            y0 = origin.getY();
+        } else {
+            Reachability reach = getReachability(unit);
+            standable = reach.getMask();
+            x0 = reach.getWindowX();
+            y0 = reach.getWindowY();
+        }
+        GridMask inRange = new GridMask(standable.getWidth(), standable.getHeight());
+
+        List<CursedTechnique> actions = new ArrayList<>();
+        actions.add(null);
+        actions.addAll(getAvailableTechniques());
+
+        List<ThreatMap.Threat> threats = new ArrayList<>();
+        Map<Integer, List<Position>> tilesByRange = new HashMap<>();
+        for (Combatant enemy : getOpposingTeam(unit).getAliveMembers()) {
+            Position enemyPos = unitPositions.get(enemy);
+            if (enemyPos == null) continue;
+            tilesByRange.clear();
+            for (CursedTechnique tech : actions) {
+                int range = tech == null ? unit.getAttackRange() : tech.getRange();
+                List<Position> tiles = tilesByRange.computeIfAbsent(range, r -> {
+                    inRange.setChebyshevRange(enemyPos.getX() - x0, enemyPos.getY() - y0, r);
+                    inRange.and(standable);
+                    List<Position> list = new ArrayList<>(inRange.cardinality());
+                    for (int i = inRange.nextSetBit(0); i >= 0; i = inRange.nextSetBit(i + 1)) {
+                        list.add(Position.of(x0 + inRange.xOf(i), y0 + inRange.yOf(i)));
+                    }
+                    return list;
+                });
+                if (!tiles.isEmpty()) threats.add(new ThreatMap.Threat(tech, enemy, tiles));
+            }
+        }
+        return new ThreatMap(unit, origin, threats);
+    }
+
     public int basicAttack(Combatant target) {
         if (currentUnitActed) return 0;
         Combatant attacker = getCurrentUnit();
@@ -260,7 +823,7 @@ public class BattleManager {
         target.takeDamage(damage);
         int actualDamage = hpBefore - target.getHp();
 
-        boolean blackFlash = random.nextInt(100) < attacker.getBasicAttackBlackFlashChance();
+        boolean blackFlash = rollChance(attacker.getBasicAttackBlackFlashChance());
         if (blackFlash) {
             int bonus = (int) (actualDamage * 1.5);
             target.takeDamage(bonus);
@@ -268,7 +831,9 @@ public class BattleManager {
         }
 
         currentUnitActed = true;
+        updateUnitHash(target);
 
+        publishSnapshot();
         for (BattleListener l : listeners) l.onUnitAttacked(attacker, target, actualDamage, blackFlash);
 
         if (!target.isAlive()) {
@@ -294,7 +859,7 @@ public class BattleManager {
                 ? techTree.getCECostMultiplier() : 1.0;
 
         return all.stream()
-                .filter(t -> getCooldownRemaining(t) == 0
+                .filter(t -> getCooldownRemaining(unit, t) == 0
                         && (int) Math.ceil(t.getCursedEnergyCost() * costMult) <= ce)
                 .collect(Collectors.toList());
     }
@@ -304,16 +869,7 @@ public class BattleManager {
         Combatant unit = getCurrentUnit();
         if (unit == null) return Collections.emptyList();
 
-        Position pos = unitPositions.get(unit);
-        List<Combatant> enemies = isPlayerUnit(unit)
-                ? enemyTeam.getAliveMembers() : playerTeam.getAliveMembers();
-
-        return enemies.stream()
-                .filter(e -> {
-                    Position ePos = unitPositions.get(e);
-                    return ePos != null && pos.chebyshevDistance(ePos) <= tech.getRange();
-                })
-                .collect(Collectors.toList());
+        return targetsInRange(unit, tech.getRange());
     }
 
     public boolean useTechnique(CursedTechnique tech, Combatant target) {
@@ -332,6 +888,8 @@ public class BattleManager {
 
         int hpBefore = target.getHp();
         tech.execute(user, target);
+        rekeySpeed(user);
+        rekeySpeed(target);
         int actualDamage = hpBefore - target.getHp();
         if (defendingUnits.contains(target) && actualDamage > 0) {
             int reduction = actualDamage / 2;
@@ -341,16 +899,19 @@ public class BattleManager {
 
         String animType = tech.getAnimationType();
         if (tech.canTriggerBlackFlash() && tech.getBlackFlashChance() > 0
-                && random.nextInt(100) < tech.getBlackFlashChance()) {
+                && rollChance(tech.getBlackFlashChance())) {
             int bonus = (int) (actualDamage * 1.5);
             target.takeDamage(bonus);
             actualDamage += bonus;
             animType = "BLACK_FLASH";
         }
 
-        cooldowns.put(tech, tech.getCooldown());
+        setCooldown(user, tech, tech.getCooldown());
         currentUnitActed = true;
+        updateUnitHash(user);
+        updateUnitHash(target);
 
+        publishSnapshot();
         for (BattleListener l : listeners) {
             l.onTechniqueUsed(user, target, tech.getName(), actualDamage,
                     animType, targetPos);
@@ -368,16 +929,33 @@ public class BattleManager {
         List<CursedTechnique> all = getAllTechniquesForUnit(unit);
         double costMult = (techTree != null && isPlayerUnit(unit))
                 ? techTree.getCECostMultiplier() : 1.0;
-        return all.stream().anyMatch(t -> getCooldownRemaining(t) == 0
+        return all.stream().anyMatch(t -> getCooldownRemaining(unit, t) == 0
                 && (int) Math.ceil(t.getCursedEnergyCost() * costMult) <= ce);
     }
 
+    /** Cooldown of one of the current unit's techniques. */
     public int getCooldownRemaining(CursedTechnique tech) {
-        return cooldowns.getOrDefault(tech, 0);
+        return getCooldownRemaining(getCurrentUnit(), tech);
+    }
+
+    public int getCooldownRemaining(Combatant unit, CursedTechnique tech) {
+        int slot = unit != null ? slotOf(unit) : -1;
+        if (slot < 0) return 0;
+        int id = tech.getId();
+        int[] row = cooldowns[slot];
+        return id < row.length ? row[id] : 0;
     }
 
     private void tickCooldowns() {
-        cooldowns.replaceAll((tech, cd) -> Math.max(0, cd - 1));
+        for (int slot = 0; slot < cooldowns.length; slot++) {
+            int[] row = cooldowns[slot];
+            for (int id = 0; id < row.length; id++) {
+                int before = row[id];
+                if (before == 0) continue;
+                zobrist ^= ZobristKeys.cooldown(slot, id, before) ^ ZobristKeys.cooldown(slot, id, before - 1);
+                row[id] = before - 1;
+            }
+        }
     }
 
     public void defend() {
@@ -385,20 +963,24 @@ public class BattleManager {
         Combatant unit = getCurrentUnit();
         if (unit == null) return;
 
-        defendingUnits.add(unit);
+        setDefending(unit, true);
         currentUnitActed = true;
         currentUnitMoved = true;
 
+        publishSnapshot();
         for (BattleListener l : listeners) l.onUnitDefended(unit);
     }
 
     private void handleUnitDeath(Combatant unit) {
+        int slot = slotOf(unit);
+        if (slot >= 0) scheduler.remove(slot);
         Position pos = unitPositions.get(unit);
         if (pos != null) {
-            positionToUnit.remove(pos);
+            removeFromBoard(unit, pos);
         }
         unitPositions.remove(unit);
 
+        publishSnapshot();
         for (BattleListener l : listeners) l.onUnitDefeated(unit);
     }
 
@@ -409,33 +991,61 @@ public class BattleManager {
     }
 
     public Combatant getCurrentUnit() {
-        if (currentTurnIndex >= 0 && currentTurnIndex < turnOrder.size()) {
-            return turnOrder.get(currentTurnIndex);
-        }
-        return null;
+        return currentSlot >= 0 ? slotUnits[currentSlot] : null;
     }
 
     public boolean isPlayerUnit(Combatant c) {
-        return playerTeam.getMembers().contains(c);
+        if (slotOf(c) >= 0) return c.getBattleFaction() == Combatant.FACTION_PLAYER;
+        return playerTeam.contains(c);
+    }
+
+    public SorcererTeam getOpposingTeam(Combatant c) {
+        return isPlayerUnit(c) ? enemyTeam : playerTeam;
     }
 
     public Position getUnitPosition(Combatant c) { return unitPositions.get(c); }
     public Combatant getUnitAt(Position p) { return positionToUnit.get(p); }
-    public Tile getTile(int x, int y) { return grid[x][y]; }
+    public Terrain getTerrain() { return terrain; }
+    public int getWidth()  { return width; }
+    public int getHeight() { return height; }
 
     public boolean isCurrentUnitMoved() { return currentUnitMoved; }
     public boolean isCurrentUnitActed() { return currentUnitActed; }
     public boolean isDefending(Combatant unit) { return defendingUnits.contains(unit); }
     public BattleState getState() { return state; }
     public int getRoundNumber() { return roundNumber; }
-    public List<Combatant> getTurnOrder() { return Collections.unmodifiableList(turnOrder); }
+    /** Units that acted this round, then those still due, in turn order. */
+    public List<Combatant> getTurnOrder() {
+        int[] order = scheduler.order();
+        List<Combatant> units = new ArrayList<>(order.length);
+        for (int slot : order) units.add(slotUnits[slot]);
+        return units;
+    }
+
+    public TurnMode getTurnMode() { return turnMode; }
+
+    /** Takes effect from the next {@link #initBattle}. */
+    public void setTurnMode(TurnMode turnMode) { this.turnMode = turnMode; }
+
+    /** Re-keys a unit in the turn queue if an effect changed its speed; no-op otherwise. */
+    private void rekeySpeed(Combatant unit) {
+        int slot = slotOf(unit);
+        if (slot >= 0) scheduler.setSpeed(slot, unit.getSpeed());
+    }
+
     public SorcererTeam getPlayerTeam() { return playerTeam; }
     public SorcererTeam getEnemyTeam() { return enemyTeam; }
     public Map<Combatant, Position> getUnitPositions() { return Collections.unmodifiableMap(unitPositions); }
 
     public void addListener(BattleListener listener) { listeners.add(listener); }
 
-    public void setTechTree(TechTree techTree) { this.techTree = techTree; }
+    public void setTechTree(TechTree techTree) {
+        this.techTree = techTree;
+        invalidateDamage();
+    }
+    public TechTree getTechTree() { return techTree; }
+
+    public long getSeed() { return seed; }
 
     public void setMaxRounds(int maxRounds) { this.maxRounds = maxRounds; }
     public int  getMaxRounds()              { return maxRounds; }
@@ -443,11 +1053,6 @@ public class BattleManager {
         return maxRounds > 0 ? Math.max(0, maxRounds - roundNumber + 1) : -1;
     }
 
-    private boolean isValidPosition(Position p) {
-        return p.getX() >= 0 && p.getX() < GRID_SIZE
-                && p.getY() >= 0 && p.getY() < GRID_SIZE;
-    }
-
     private int getUnitCE(Combatant unit) {
         if (unit instanceof CursedEnergyHolder) return ((CursedEnergyHolder) unit).getCursedEnergy();
         return 0;
@@ -0,0 +1,137 @@
+package controllers;
+
+import enums.BattleState;
+import models.Combatant;
+import utils.Position;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок состояния боя. {@link BattleManager} публикует новый снимок
+ * после каждого действия; рендер, фоновый ИИ и запись реплея читают его без блокировок.
+ * Неизменившиеся юниты и очередь ходов разделяются с предыдущим снимком. Карты клеток
+ * нет — юнитов не больше десятка, и поиск по ним не зависит от размера поля.
+ */
+public final class BattleSnapshot {
+
+    /** One unit as of this snapshot; {@code position} is null once it leaves the board. */
+    public static final class UnitState {
+        private final Combatant unit;
+        private final int index;
+        private final boolean player;
+        private final int hp;
+        private final int maxHp;
+        private final int cursedEnergy;
+        private final int speed;
+        private final Position position;
+        private final boolean defending;
+
+        UnitState(Combatant unit, int index, boolean player, int cursedEnergy,
+                  Position position, boolean defending) {
+            this.unit = unit;
+            this.index = index;
+            this.player = player;
+            this.hp = unit.getHp();
+            this.maxHp = unit.getMaxHp();
+            this.cursedEnergy = cursedEnergy;
+            this.speed = unit.getSpeed();
+            this.position = position;
+            this.defending = defending;
+        }
+
+        boolean matches(Combatant unit, int cursedEnergy, Position position, boolean defending) {
+            return this.unit == unit && hp == unit.getHp() && maxHp == unit.getMaxHp()
+                    && this.cursedEnergy == cursedEnergy && speed == unit.getSpeed()
+                    && this.position == position && this.defending == defending;
+        }
+
+        /** Identity of the live unit, e.g. to open its info panel; do not read its mutable state. */
+        public Combatant getUnit()     { return unit; }
+        public String getName()        { return unit.getName(); }
+        public int getIndex()          { return index; }
+        public boolean isPlayer()      { return player; }
+        public int getHp()             { return hp; }
+        public int getMaxHp()          { return maxHp; }
+        public int getCursedEnergy()   { return cursedEnergy; }
+        public int getSpeed()          { return speed; }
+        public Position getPosition()  { return position; }
+        public boolean isDefending()   { return defending; }
+        public boolean isAlive()       { return hp > 0; }
+    }
+
+    private final long version;
+    private final int round;
+    private final BattleState state;
+    private final int currentIndex;
+    private final boolean currentUnitMoved;
+    private final boolean currentUnitActed;
+    private final UnitState[] units;
+    private final int[] turnOrder;
+    private final int width;
+    private final int height;
+
+    BattleSnapshot(long version, int round, BattleState state, int currentIndex,
+                   boolean currentUnitMoved, boolean currentUnitActed,
+                   UnitState[] units, int[] turnOrder, int width, int height) {
+        this.version = version;
+        this.round = round;
+        this.state = state;
+        this.currentIndex = currentIndex;
+        this.currentUnitMoved = currentUnitMoved;
+        this.currentUnitActed = currentUnitActed;
+        this.units = units;
+        this.turnOrder = turnOrder;
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Increases by one with every published snapshot of the same battle. */
+    public long getVersion()            { return version; }
+    public int getRound()               { return round; }
+    public BattleState getState()       { return state; }
+    public boolean isCurrentUnitMoved() { return currentUnitMoved; }
+    public boolean isCurrentUnitActed() { return currentUnitActed; }
+    public int getUnitCount()           { return units.length; }
+    public UnitState getUnit(int index) { return units[index]; }
+
+    public UnitState getCurrentUnit() {
+        return currentIndex >= 0 ? units[currentIndex] : null;
+    }
+
+    public boolean isCurrent(UnitState unit) {
+        return unit != null && unit.index == currentIndex;
+    }
+
+    /** All units in roster order: player team, then enemy team. */
+    public List<UnitState> getUnits() {
+        return new AbstractList<UnitState>() {
+            @Override public UnitState get(int i) { return units[i]; }
+            @Override public int size()           { return units.length; }
+        };
+    }
+
+    public List<UnitState> getTurnOrder() {
+        return new AbstractList<UnitState>() {
+            @Override public UnitState get(int i) { return units[turnOrder[i]]; }
+            @Override public int size()           { return turnOrder.length; }
+        };
+    }
+
+    public int getWidth()  { return width; }
+    public int getHeight() { return height; }
+
+    public UnitState getUnitAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return null;
+        for (UnitState unit : units) {
+            Position pos = unit.getPosition();
+            if (pos != null && pos.getX() == x && pos.getY() == y) return unit;
+        }
+        return null;
+    }
+
+    // Structural sharing helpers for BattleManager
+
+    UnitState[] units()   { return units; }
+    int[] turnOrder()     { return turnOrder; }
+}
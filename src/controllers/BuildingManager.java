@@ -16,6 +16,13 @@ public class BuildingManager {
 
     private final List<Building> allBuildings;
 
+    private double healBonusAtBase;
+    private double healBonusInField;
+    private int    yuanIncome;
+    private double spawnChanceMultiplier;
+    private int    recruitmentOfficeLevel;
+    private int    version;
+
     public BuildingManager() {
         allBuildings = new ArrayList<>();
         allBuildings.add(new MedicalWing());
@@ -23,6 +30,7 @@ public class BuildingManager {
         allBuildings.add(new Archive());
         allBuildings.add(new BarrierStation());
         allBuildings.add(new RecruitmentOffice());
+        recompute();
     }
 
     public boolean build(Building building, GameManager gm) {
@@ -31,6 +39,7 @@ public class BuildingManager {
 
         building.build();
         building.onBuilt(gm.getPlayerTeam());
+        recompute();
         return true;
     }
 
@@ -40,32 +49,40 @@ public class BuildingManager {
 
         building.upgrade();
         building.onUpgraded(gm.getPlayerTeam());
+        recompute();
         return true;
     }
 
     public double getTotalHealBonus(boolean atBase) {
-        return allBuildings.stream()
-                .mapToDouble(b -> b.getHealBonusPct(atBase))
-                .sum();
+        return atBase ? healBonusAtBase : healBonusInField;
     }
 
-    public int getTotalYuanIncome() {
-        return allBuildings.stream()
+    public int    getTotalYuanIncome()         { return yuanIncome; }
+    public double getSpawnChanceMultiplier()   { return spawnChanceMultiplier; }
+    public int    getRecruitmentOfficeLevel()  { return recruitmentOfficeLevel; }
+
+    /** Building or upgrading changes the bonuses; readers can compare versions instead of values. */
+    public int getVersion() { return version; }
+
+    /** Sums the building bonuses once per build or upgrade instead of on every read. */
+    private void recompute() {
+        healBonusAtBase = allBuildings.stream()
+                .mapToDouble(b -> b.getHealBonusPct(true))
+                .sum();
+        healBonusInField = allBuildings.stream()
+                .mapToDouble(b -> b.getHealBonusPct(false))
+                .sum();
+        yuanIncome = allBuildings.stream()
                 .mapToInt(Building::getYuanIncomeBonus)
                 .sum();
-    }
-
-    public double getSpawnChanceMultiplier() {
-        return allBuildings.stream()
+        spawnChanceMultiplier = allBuildings.stream()
                 .mapToDouble(Building::getSpawnChanceMultiplier)
                 .reduce(1.0, (a, b) -> a * b);
-    }
-
-    public int getRecruitmentOfficeLevel() {
-        return allBuildings.stream()
+        recruitmentOfficeLevel = allBuildings.stream()
                 .filter(b -> b instanceof RecruitmentOffice)
                 .mapToInt(b -> b.isBuilt() ? b.getLevel() : 0)
                 .findFirst().orElse(0);
+        version++;
     }
 
     public List<Building> getAllBuildings() { return allBuildings; }
@@ -0,0 +1,97 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+
+import java.util.List;
+
+/** Урон атакующий × цель × действие по правилам basicAttack/useTechnique, по слотам ростера. */
+final class DamageMatrix {
+
+    static final int ACTIONS = 1 + ZobristKeys.MAX_TECHNIQUES;
+    static final int BASIC = 0;
+
+    private static final int PROBE_HP = 1_000_000;
+
+    private final int slots;
+    private final int[] damage;
+    private final int[] lethal;
+    private final double[] expected;
+
+    private DamageMatrix(int slots) {
+        this.slots    = slots;
+        this.damage   = new int[slots * slots * ACTIONS];
+        this.lethal   = new int[slots * slots * ACTIONS];
+        this.expected = new double[slots * slots * ACTIONS];
+    }
+
+    int getDamage(int attacker, int target, int action)            { return damage[index(attacker, target, action)]; }
+    int getLethalDamage(int attacker, int target, int action)      { return lethal[index(attacker, target, action)]; }
+    double getExpectedDamage(int attacker, int target, int action) { return expected[index(attacker, target, action)]; }
+
+    private int index(int attacker, int target, int action) {
+        return (attacker * slots + target) * ACTIONS + action;
+    }
+
+    static int[] rawDamage(BattleManager battle, List<Combatant> roster, double playerBonus) {
+        int[] raw = new int[roster.size() * ACTIONS];
+        for (int slot = 0; slot < roster.size(); slot++) {
+            Combatant unit = roster.get(slot);
+            double bonus = battle.isPlayerUnit(unit) ? playerBonus : 0.0;
+            raw[slot * ACTIONS + BASIC] = (int) (unit.getAttack() * (1.0 + bonus));
+            List<CursedTechnique> techs = battle.getAllTechniquesForUnit(unit);
+            for (int t = 0; t < techs.size() && t < ZobristKeys.MAX_TECHNIQUES; t++) {
+                Probe user = new Probe(unit.getAttack());
+                Probe target = new Probe(0);
+                techs.get(t).execute(user, target);
+                raw[slot * ACTIONS + 1 + t] = PROBE_HP - target.getHp();
+            }
+        }
+        return raw;
+    }
+
+    static DamageMatrix build(BattleManager battle, List<Combatant> roster, int[] raw) {
+        int n = roster.size();
+        DamageMatrix m = new DamageMatrix(n);
+        for (int a = 0; a < n; a++) {
+            Combatant attacker = roster.get(a);
+            List<CursedTechnique> techs = battle.getAllTechniquesForUnit(attacker);
+            for (int t = 0; t < n; t++) {
+                Combatant target = roster.get(t);
+                int defense = target.getDefense();
+                boolean defending = battle.isDefending(target);
+
+                int basic = raw[a * ACTIONS + BASIC];
+                if (defending) basic = (int) (basic * 0.5);
+                int basicLanded = Math.max(1, basic - defense);
+                m.store(a, t, BASIC, basicLanded, basicLanded, defense,
+                        attacker.getBasicAttackBlackFlashChance());
+
+                for (int k = 0; k < techs.size() && k < ZobristKeys.MAX_TECHNIQUES; k++) {
+                    CursedTechnique tech = techs.get(k);
+                    int hit = Math.max(1, raw[a * ACTIONS + 1 + k] - defense);
+                    int landed = defending ? hit - hit / 2 : hit;
+                    int chance = tech.canTriggerBlackFlash() ? tech.getBlackFlashChance() : 0;
+                    m.store(a, t, 1 + k, landed, hit, defense, chance);
+                }
+            }
+        }
+        return m;
+    }
+
+    private void store(int attacker, int target, int action, int landed, int hit, int defense,
+                       int blackFlashChance) {
+        int i = index(attacker, target, action);
+        damage[i] = landed;
+        lethal[i] = hit;
+        int bonus = Math.max(1, (int) (landed * 1.5) - defense);
+        expected[i] = landed + blackFlashChance / 100.0 * bonus;
+    }
+
+    private static class Probe extends Combatant {
+        Probe(int attack) { super("probe", PROBE_HP, attack, 0, 0); }
+
+        @Override
+        public String getInfo() { return "probe"; }
+    }
+}
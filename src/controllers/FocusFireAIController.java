@@ -0,0 +1,68 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.util.List;
+
+/**
+ * Вся команда бьёт одну цель — живого врага с наименьшим HP — пока он не падёт.
+ * Юнит, который не дотягивается до цели, сближается с ней и бьёт то, что окажется рядом.
+ */
+public class FocusFireAIController implements AIStrategy {
+
+    @Override
+    public void playTurn(BattleManager battle) {
+        Combatant unit = battle.getCurrentUnit();
+        Combatant focus = unit != null && unit.isAlive() ? pickFocus(battle, unit) : null;
+        if (focus == null) {
+            battle.endTurn();
+            return;
+        }
+        Position origin = battle.getUnitPosition(unit);
+
+        ThreatMap.Threat best = null;
+        for (ThreatMap.Threat threat : battle.getThreatMap().getThreats()) {
+            if (threat.getTarget() == focus && (best == null || power(threat) > power(best))) best = threat;
+        }
+        if (best != null) {
+            Position from = best.getTiles().contains(origin) ? origin : TurnPlan.closestTo(best.getTiles(), origin);
+            AIController.strike(battle, best, from);
+            battle.endTurn();
+            return;
+        }
+
+        Position focusPos = battle.getUnitPosition(focus);
+        Position step = TurnPlan.closestTo(battle.getMovablePositions(), focusPos);
+        if (step != null && step.chebyshevDistance(focusPos) < origin.chebyshevDistance(focusPos)) {
+            battle.moveUnit(step);
+        }
+
+        List<Combatant> inReach = battle.getAttackableTargets();
+        if (!inReach.isEmpty()) {
+            battle.basicAttack(AIController.pickBestTarget(battle, inReach, unit, null));
+        } else {
+            battle.defend();
+        }
+        battle.endTurn();
+    }
+
+    /** Lowest current HP, then highest attack, so every unit settles on the same enemy. */
+    private static Combatant pickFocus(BattleManager battle, Combatant unit) {
+        Combatant focus = null;
+        for (Combatant enemy : battle.getOpposingTeam(unit).getAliveMembers()) {
+            if (battle.getUnitPosition(enemy) == null) continue;
+            if (focus == null || enemy.getHp() < focus.getHp()
+                    || (enemy.getHp() == focus.getHp() && enemy.getAttack() > focus.getAttack())) {
+                focus = enemy;
+            }
+        }
+        return focus;
+    }
+
+    private static int power(ThreatMap.Threat threat) {
+        CursedTechnique tech = threat.getTechnique();
+        return tech == null ? 0 : AIController.techniquePower(tech);
+    }
+}
@@ -12,7 +12,10 @@ import models.heroes.InumakiToge;
 import models.heroes.MakiZenin;
 import models.heroes.Panda;
 import models.heroes.SatoruGojo;
+import simulation.AutoResolveResult;
+import simulation.AutoResolver;
 import systems.EventSystem;
+import systems.RandomService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +38,10 @@ public class GameManager {
     private final ResourceManager resourceManager;
     private final TechTree        techTree;
     private final EventSystem     eventSystem;
+    private final RandomService   rng;
+    private final AutoResolver    autoResolver;
     private Mission               currentMission;
+    private StatModifiers         modifiers;
 
     private static class HeroEntry {
         final NamedSorcerer hero;
@@ -57,12 +63,18 @@ public class GameManager {
     private final List<GameListener> listeners;
 
     public GameManager(SorcererTeam playerTeam) {
+        this(playerTeam, System.nanoTime());
+    }
+
+    public GameManager(SorcererTeam playerTeam, long campaignSeed) {
         this.playerTeam      = playerTeam;
+        this.rng             = new RandomService(campaignSeed);
         this.worldMap        = new WorldMap();
         this.buildingManager = new BuildingManager();
         this.resourceManager = new ResourceManager(STARTING_YUAN);
         this.techTree        = new TechTree();
-        this.eventSystem     = new EventSystem();
+        this.eventSystem     = new EventSystem(rng.stream(RandomService.Stream.EVENTS));
+        this.autoResolver    = new AutoResolver();
         this.heroPool        = new ArrayList<>();
         this.heroRoster      = new ArrayList<>();
         this.listeners       = new ArrayList<>();
@@ -130,8 +142,27 @@ public class GameManager {
         return enemies;
     }
 
+    /**
+     * Starts the mission and settles it at once with the auto-resolve model instead of
+     * the tactical battle; HP losses and rewards are applied as after a real fight.
+     */
+    public AutoResolveResult autoResolveMission() {
+        SorcererTeam enemies = startMission();
+        if (enemies == null) return null;
+
+        int turnLimit = currentMission.hasTurnLimit() ? currentMission.getTurnLimit() : 0;
+        AutoResolveResult result = autoResolver.resolve(playerTeam, enemies, techTree,
+                currentDistrict.createTerrain(), turnLimit, rng.nextBattleSeed());
+        fireMessage(String.format("Автобой: шанс победы %.0f%%, ~%d раундов.",
+                result.getWinProbability() * 100, result.getRounds()));
+        onBattleFinished(result.getOutcome());
+        return result;
+    }
+
     public Mission getCurrentMission() { return currentMission; }
 
+    public long nextBattleSeed() { return rng.nextBattleSeed(); }
+
     public void onBattleFinished(BattleState result) {
         phase = GamePhase.MAP_OVERVIEW;
 
@@ -189,7 +220,8 @@ public class GameManager {
                 districtYuan += d.getIncomePerTurn();
             }
         }
-        int buildingYuan = buildingManager.getTotalYuanIncome();
+        StatModifiers mods = getModifiers();
+        int buildingYuan = mods.getBuildingYuanIncome();
         resourceManager.addYuan(districtYuan + buildingYuan);
 
         if (districtYuan + buildingYuan > 0) {
@@ -197,9 +229,7 @@ public class GameManager {
                     districtYuan, buildingYuan, resourceManager.getYuan()));
         }
 
-        double healPct = atBase
-                ? BASE_HEAL_PCT + buildingManager.getTotalHealBonus(true)
-                : buildingManager.getTotalHealBonus(false) + techTree.getFieldHealBonus();
+        double healPct = atBase ? mods.getBaseHealPct() : mods.getFieldHealPct();
         if (healPct > 0) {
             for (Combatant c : playerTeam.getAliveMembers()) {
                 c.heal((int) (c.getMaxHp() * healPct));
@@ -209,12 +239,10 @@ public class GameManager {
                     healPct * 100, location));
         }
 
-        double spawnChance = BASE_SPAWN_CHANCE
-                * buildingManager.getSpawnChanceMultiplier()
-                * techTree.getSpawnChanceMultiplier();
+        double spawnChance = BASE_SPAWN_CHANCE * mods.getSpawnChanceMultiplier();
         for (District d : worldMap.getDistricts()) {
             if (d.getStatus() == DistrictStatus.CONTROLLED && d != base) {
-                if (Math.random() < spawnChance) {
+                if (rng.stream(RandomService.Stream.SPAWN).nextDouble() < spawnChance) {
                     d.setStatus(DistrictStatus.CONTESTED);
                     SorcererTeam newEnemies = new SorcererTeam("Новые проклятия");
                     newEnemies.addMember(CursedSpiritMob.createSwarm());
@@ -299,10 +327,20 @@ public class GameManager {
     public SorcererTeam    getPlayerTeam()       { return playerTeam; }
     public BuildingManager getBuildingManager()  { return buildingManager; }
     public TechTree        getTechTree()         { return techTree; }
+    public RandomService   getRandomService()    { return rng; }
+    public AutoResolver    getAutoResolver()     { return autoResolver; }
     public District        getCurrentDistrict()  { return currentDistrict; }
     public int             getTurnNumber()       { return turnNumber; }
     public GamePhase       getPhase()            { return phase; }
 
+    /** Current campaign modifiers; rebuilt only after research, building or upgrading. */
+    public StatModifiers getModifiers() {
+        if (modifiers == null || !modifiers.isCurrent(techTree, buildingManager)) {
+            modifiers = new StatModifiers(techTree, buildingManager, BASE_HEAL_PCT);
+        }
+        return modifiers;
+    }
+
     private void fireDistrictChanged(District d) {
         for (GameListener l : listeners) l.onDistrictChanged(d);
     }
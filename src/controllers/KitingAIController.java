@@ -0,0 +1,125 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Дальнобойные юниты (Годзё, Нобара — дальность атаки 2) бьют с самой безопасной
+ * клетки и держат дистанцию, когда достать некого. Ближний бой — как у жадного ИИ.
+ */
+public class KitingAIController implements AIStrategy {
+
+    private final AIController melee = new AIController();
+
+    @Override
+    public void playTurn(BattleManager battle) {
+        Combatant unit = battle.getCurrentUnit();
+        if (unit == null || !unit.isAlive()) {
+            battle.endTurn();
+            return;
+        }
+        int reach = reach(battle, unit);
+        if (reach < 2) {
+            melee.playTurn(battle);
+            return;
+        }
+
+        Position origin = battle.getUnitPosition(unit);
+        List<Position> enemies = new ArrayList<>();
+        List<Integer> threatRanges = new ArrayList<>();
+        for (Combatant enemy : battle.getOpposingTeam(unit).getAliveMembers()) {
+            Position p = battle.getUnitPosition(enemy);
+            if (p != null) {
+                enemies.add(p);
+                threatRanges.add(enemy.getMovementRange() + enemy.getAttackRange());
+            }
+        }
+        if (enemies.isEmpty()) {
+            battle.endTurn();
+            return;
+        }
+
+        // Strongest strike on the best target, from the tile farthest from every enemy
+        ThreatMap.Threat best = null;
+        List<ThreatMap.Threat> threats = battle.getThreatMap().getThreats();
+        List<Combatant> targets = new ArrayList<>();
+        for (ThreatMap.Threat threat : threats) {
+            if (!targets.contains(threat.getTarget())) targets.add(threat.getTarget());
+        }
+        if (!targets.isEmpty()) {
+            Combatant target = AIController.pickBestTarget(battle, targets, unit, null);
+            for (ThreatMap.Threat threat : threats) {
+                if (threat.getTarget() == target && (best == null || power(threat) > power(best))) best = threat;
+            }
+        }
+        if (best != null) {
+            AIController.strike(battle, best, safest(best.getTiles(), enemies, origin));
+            battle.endTurn();
+            return;
+        }
+
+        // Nothing in reach: hover just outside every enemy's move + attack distance,
+        // or as far out of it as possible when no tile is safe
+        List<Position> tiles = new ArrayList<>(battle.getMovablePositions());
+        tiles.add(origin);
+        Position hold = origin;
+        int holdMargin = margin(origin, enemies, threatRanges);
+        for (Position p : tiles) {
+            int m = margin(p, enemies, threatRanges);
+            boolean better = m > 0
+                    ? holdMargin <= 0 || m < holdMargin
+                    : m > holdMargin;
+            if (better) {
+                hold = p;
+                holdMargin = m;
+            }
+        }
+        if (!hold.equals(origin)) battle.moveUnit(hold);
+        battle.defend();
+        battle.endTurn();
+    }
+
+    /** Longest range among the basic attack and the techniques the unit can use now. */
+    private static int reach(BattleManager battle, Combatant unit) {
+        int reach = unit.getAttackRange();
+        for (CursedTechnique tech : battle.getAvailableTechniques()) reach = Math.max(reach, tech.getRange());
+        return reach;
+    }
+
+    private static Position safest(List<Position> tiles, List<Position> enemies, Position origin) {
+        Position best = null;
+        int bestDist = -1;
+        for (Position p : tiles) {
+            int dist = nearest(p, enemies);
+            if (dist > bestDist || (dist == bestDist && p.equals(origin))) {
+                bestDist = dist;
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    private static int nearest(Position p, List<Position> enemies) {
+        int min = Integer.MAX_VALUE;
+        for (Position e : enemies) min = Math.min(min, p.chebyshevDistance(e));
+        return min;
+    }
+
+    /** Smallest distance past any enemy's threat range; positive means no enemy can hit the tile next turn. */
+    private static int margin(Position p, List<Position> enemies, List<Integer> threatRanges) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < enemies.size(); i++) {
+            min = Math.min(min, p.chebyshevDistance(enemies.get(i)) - threatRanges.get(i));
+        }
+        return min;
+    }
+
+    private static int power(ThreatMap.Threat threat) {
+        CursedTechnique tech = threat.getTechnique();
+        return tech == null ? 0 : AIController.techniquePower(tech);
+    }
+}
@@ -0,0 +1,225 @@
+package controllers;
+
+import enums.BattleState;
+import models.Combatant;
+import systems.RandomService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * ИИ на основе поиска по дереву Монте-Карло (UCT) для сложных районов.
+ * Каждый поток строит своё дерево на копиях боя, результаты корней суммируются.
+ */
+public class MctsAIController implements AIStrategy {
+
+    public static final long DEFAULT_TIME_BUDGET_MS = 300;
+    public static final int DEFAULT_MAX_ITERATIONS = 20000;
+    public static final int DEFAULT_ROLLOUT_TURNS = 24;
+
+    private static final double EXPLORATION = 1.4;
+    private static final double ROLLOUT_EPSILON = 0.2;
+
+    private final ForkJoinPool pool;
+    private final AIController rolloutPolicy = new AIController();
+
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MS;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+    private int rolloutTurns = DEFAULT_ROLLOUT_TURNS;
+
+    public MctsAIController() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MctsAIController(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Wall-clock budget per decision; 0 means only the iteration cap applies. */
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+    public void setMaxIterations(int maxIterations)        { this.maxIterations = maxIterations; }
+    public void setRolloutTurns(int rolloutTurns)          { this.rolloutTurns = rolloutTurns; }
+
+    @Override
+    public void playTurn(BattleManager battle) {
+        Combatant unit = battle.getCurrentUnit();
+        if (unit == null || !unit.isAlive()) {
+            battle.endTurn();
+            return;
+        }
+
+        List<TurnPlan> candidates = TurnPlan.generate(battle);
+        if (candidates.size() == 1) {
+            candidates.get(0).apply(battle);
+            return;
+        }
+
+        int workers = Math.max(1, pool.getParallelism());
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        int iterationsPerWorker = Math.max(1, maxIterations / workers);
+        long decisionSeed = RandomService.deriveSeed(battle.getSeed(),
+                battle.getRoundNumber() * 31L + battle.getRoster().indexOf(unit));
+
+        List<Callable<Node>> searches = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long workerSeed = RandomService.deriveSeed(decisionSeed, w);
+            searches.add(() -> search(battle, candidates, workerSeed, iterationsPerWorker, deadline));
+        }
+
+        int[] visits = new int[candidates.size()];
+        double[] value = new double[candidates.size()];
+        for (Future<Node> future : pool.invokeAll(searches)) {
+            Node root;
+            try {
+                root = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MCTS search failed", e.getCause());
+            }
+            for (Node child : root.children) {
+                visits[child.planIndex] += child.visits;
+                value[child.planIndex] += child.value;
+            }
+        }
+
+        int best = 0;
+        for (int i = 1; i < candidates.size(); i++) {
+            if (visits[i] > visits[best]
+                    || (visits[i] == visits[best] && value[i] > value[best])) {
+                best = i;
+            }
+        }
+        candidates.get(best).apply(battle);
+    }
+
+    private Node search(BattleManager battle, List<TurnPlan> rootPlans, long seed,
+                        int iterations, long deadline) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        Combatant rootUnit = battle.getCurrentUnit();
+        Node root = new Node(-1, null, battle.getRoster().indexOf(rootUnit), battle.isPlayerUnit(rootUnit));
+        root.untried = new ArrayList<>(rootPlans);
+
+        List<Node> path = new ArrayList<>();
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            BattleManager sim = battle.copy(rng.nextLong());
+            path.clear();
+            Node node = root;
+
+            // Selection: open-loop, so stop once the sampled state no longer matches the node
+            while (!isFinished(sim) && node.matches(sim)) {
+                if (node.untried == null) node.untried = TurnPlan.generate(sim);
+                if (!node.untried.isEmpty()) {
+                    TurnPlan plan = node.untried.remove(rng.nextInt(node.untried.size()));
+                    int index = node == root ? rootPlans.indexOf(plan) : -1;
+                    boolean playerSide = node.playerSide;
+                    plan.apply(sim);
+                    Node child = newChild(sim, index, plan, playerSide);
+                    node.children.add(child);
+                    path.add(child);
+                    break;
+                }
+                if (node.children.isEmpty()) break;
+                Node child = node.selectChild();
+                child.plan.apply(sim);
+                path.add(child);
+                node = child;
+            }
+
+            double reward = rollout(sim, rng);
+            root.visits++;
+            for (Node n : path) {
+                n.visits++;
+                n.value += n.planByPlayer ? reward : 1.0 - reward;
+            }
+        }
+        return root;
+    }
+
+    private static Node newChild(BattleManager sim, int index, TurnPlan plan, boolean planByPlayer) {
+        Combatant next = sim.getCurrentUnit();
+        int actor = next != null ? sim.getRoster().indexOf(next) : -1;
+        boolean playerSide = next != null && sim.isPlayerUnit(next);
+        Node child = new Node(index, plan, actor, playerSide);
+        child.planByPlayer = planByPlayer;
+        return child;
+    }
+
+    /** Plays out a few turns with an epsilon-greedy policy; returns the player side's score in [0, 1]. */
+    private double rollout(BattleManager sim, SplittableRandom rng) {
+        for (int turn = 0; turn < rolloutTurns && !isFinished(sim); turn++) {
+            if (sim.getCurrentUnit() == null) break;
+            if (rng.nextDouble() < ROLLOUT_EPSILON) {
+                List<TurnPlan> plans = TurnPlan.generate(sim);
+                plans.get(rng.nextInt(plans.size())).apply(sim);
+            } else {
+                rolloutPolicy.playTurn(sim);
+            }
+        }
+        return evaluate(sim);
+    }
+
+    private static double evaluate(BattleManager sim) {
+        if (sim.getState() == BattleState.VICTORY) return 1.0;
+        if (sim.getState() == BattleState.DEFEAT) return 0.0;
+        double player = healthShare(sim.getPlayerTeam().getMembers());
+        double enemy = healthShare(sim.getEnemyTeam().getMembers());
+        return 0.5 + 0.5 * (player - enemy);
+    }
+
+    private static double healthShare(List<Combatant> members) {
+        if (members.isEmpty()) return 0;
+        double sum = 0;
+        for (Combatant c : members) sum += (double) c.getHp() / c.getMaxHp();
+        return sum / members.size();
+    }
+
+    private static boolean isFinished(BattleManager sim) {
+        return sim.getState() == BattleState.VICTORY || sim.getState() == BattleState.DEFEAT;
+    }
+
+    private static final class Node {
+        final int planIndex;
+        final TurnPlan plan;
+        final int actor;
+        final boolean playerSide;
+        boolean planByPlayer;
+        final List<Node> children = new ArrayList<>();
+        List<TurnPlan> untried;
+        int visits;
+        double value;
+
+        Node(int planIndex, TurnPlan plan, int actor, boolean playerSide) {
+            this.planIndex = planIndex;
+            this.plan = plan;
+            this.actor = actor;
+            this.playerSide = playerSide;
+        }
+
+        boolean matches(BattleManager sim) {
+            Combatant current = sim.getCurrentUnit();
+            return current != null && sim.getRoster().indexOf(current) == actor;
+        }
+
+        Node selectChild() {
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(Math.max(1, visits));
+            for (Node child : children) {
+                double score = child.value / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
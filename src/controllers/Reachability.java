@@ -0,0 +1,142 @@
+package controllers;
+
+import models.Combatant;
+import utils.GridMask;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Дерево достижимости юнита для одной версии поля: множество клеток, куда он
+ * может переместиться, и указатель на предыдущий шаг для каждой из них.
+ * Строится послойной заливкой по битовым маскам и кешируется в {@link BattleManager}
+ * до следующего изменения расстановки. Маски покрывают только окно радиусом в дальность
+ * хода вокруг юнита, поэтому стоимость не зависит от размера поля.
+ */
+public class Reachability {
+
+    private final Combatant unit;
+    private final Position origin;
+    private final int range;
+    private final int boardVersion;
+    /** Grid coordinates of the window's (0, 0). */
+    private final int x0;
+    private final int y0;
+    private final GridMask reachable;
+    private final int[] parent;
+    private final int[] distance;
+    private final List<Position> positions;
+
+    /** {@code walkable} and {@code occupied} cover the whole grid; only the window is read. */
+    Reachability(Combatant unit, Position origin, int range, int boardVersion,
+                 GridMask walkable, GridMask occupied) {
+        this.unit = unit;
+        this.origin = origin;
+        this.range = range;
+        this.boardVersion = boardVersion;
+
+        x0 = Math.max(0, origin.getX() - range);
+        y0 = Math.max(0, origin.getY() - range);
+        int width = Math.min(walkable.getWidth() - 1, origin.getX() + range) - x0 + 1;
+        int height = Math.min(walkable.getHeight() - 1, origin.getY() + range) - y0 + 1;
+        GridMask freeTiles = new GridMask(width, height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (walkable.get(x0 + x, y0 + y) && !occupied.get(x0 + x, y0 + y)) freeTiles.set(x, y);
+            }
+        }
+        reachable = new GridMask(width, height);
+        parent = new int[width * height];
+        distance = new int[width * height];
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, -1);
+
+        GridMask frontier = new GridMask(width, height);
+        GridMask next = new GridMask(width, height);
+        int ox = origin.getX() - x0;
+        int oy = origin.getY() - y0;
+        reachable.set(ox, oy);
+        frontier.set(ox, oy);
+        distance[reachable.index(ox, oy)] = 0;
+
+        for (int step = 1; step <= range && !frontier.isEmpty(); step++) {
+            next.copyFrom(frontier);
+            next.dilate();
+            next.and(freeTiles);
+            next.andNot(reachable);
+            for (int i = next.nextSetBit(0); i >= 0; i = next.nextSetBit(i + 1)) {
+                parent[i] = findParent(frontier, next.xOf(i), next.yOf(i));
+                distance[i] = step;
+            }
+            reachable.or(next);
+            frontier.copyFrom(next);
+        }
+
+        List<Position> list = new ArrayList<>(reachable.cardinality());
+        for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+            if (distance[i] > 0) list.add(toGrid(i));
+        }
+        positions = Collections.unmodifiableList(list);
+    }
+
+    private Position toGrid(int i) {
+        return Position.of(x0 + reachable.xOf(i), y0 + reachable.yOf(i));
+    }
+
+    /** Index of grid tile {@code p} in the window masks, or -1 outside the window. */
+    private int local(Position p) {
+        int x = p.getX() - x0;
+        int y = p.getY() - y0;
+        return reachable.get(x, y) ? reachable.index(x, y) : -1;
+    }
+
+    private static int findParent(GridMask frontier, int x, int y) {
+        for (int n = 0; n < Position.NEIGHBOR_COUNT; n++) {
+            int px = x + Position.neighborDx(n);
+            int py = y + Position.neighborDy(n);
+            if (frontier.get(px, py)) return frontier.index(px, py);
+        }
+        return -1;
+    }
+
+    boolean isValidFor(Combatant unit, Position origin, int range, int boardVersion) {
+        return this.unit == unit && this.origin.equals(origin)
+                && this.range == range && this.boardVersion == boardVersion;
+    }
+
+    /** Reachable tiles including the origin, in window coordinates; callers must not modify it. */
+    GridMask getMask()                 { return reachable; }
+    int getWindowX()                   { return x0; }
+    int getWindowY()                   { return y0; }
+
+    public Combatant getUnit()         { return unit; }
+    public Position getOrigin()        { return origin; }
+
+    /** Every tile the unit can move to, excluding its own tile. */
+    public List<Position> getPositions() { return positions; }
+
+    public boolean contains(Position p) {
+        return !p.equals(origin) && local(p) >= 0;
+    }
+
+    /** Number of steps to {@code p}, or -1 if unreachable. */
+    public int getDistance(Position p) {
+        int i = local(p);
+        return i >= 0 ? distance[i] : -1;
+    }
+
+    /** Step-by-step path from the first tile after the origin up to {@code target}; empty if unreachable. */
+    public List<Position> getPath(Position target) {
+        if (!contains(target)) return Collections.emptyList();
+        Position[] steps = new Position[getDistance(target)];
+        int i = local(target);
+        for (int k = steps.length - 1; k >= 0; k--) {
+            steps[k] = toGrid(i);
+            i = parent[i];
+        }
+        return Arrays.asList(steps);
+    }
+}
@@ -0,0 +1,38 @@
+package controllers;
+
+import models.TechTree;
+
+/**
+ * Сводные модификаторы кампании из TechTree и зданий. Неизменяемый снимок:
+ * пересобирается, только когда меняется версия дерева технологий или зданий.
+ * Боевые бонусы сюда не входят — бой читает их из TechTree, где они уже предвычислены.
+ */
+public final class StatModifiers {
+
+    private final int techVersion;
+    private final int buildingVersion;
+    private final double baseHealPct;
+    private final double fieldHealPct;
+    private final int    buildingYuanIncome;
+    private final double spawnChanceMultiplier;
+
+    StatModifiers(TechTree techTree, BuildingManager buildings, double baseHealPct) {
+        this.techVersion           = techTree.getVersion();
+        this.buildingVersion       = buildings.getVersion();
+        this.baseHealPct           = baseHealPct + buildings.getTotalHealBonus(true);
+        this.fieldHealPct          = buildings.getTotalHealBonus(false) + techTree.getFieldHealBonus();
+        this.buildingYuanIncome    = buildings.getTotalYuanIncome();
+        this.spawnChanceMultiplier = buildings.getSpawnChanceMultiplier() * techTree.getSpawnChanceMultiplier();
+    }
+
+    boolean isCurrent(TechTree techTree, BuildingManager buildings) {
+        return techVersion == techTree.getVersion() && buildingVersion == buildings.getVersion();
+    }
+
+    /** Share of max HP healed per turn at the base, base rate included. */
+    public double getBaseHealPct()           { return baseHealPct; }
+    /** Share of max HP healed per turn away from the base. */
+    public double getFieldHealPct()          { return fieldHealPct; }
+    public int    getBuildingYuanIncome()    { return buildingYuanIncome; }
+    public double getSpawnChanceMultiplier() { return spawnChanceMultiplier; }
+}
@@ -0,0 +1,71 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Карта угроз текущего юнита «переместиться и ударить»: для обычной атаки и каждой
+ * доступной техники — какие враги достижимы и с каких клеток. Клетка юнита
+ * входит в список, если удар возможен без перемещения.
+ */
+public class ThreatMap {
+
+    public static class Threat {
+        private final CursedTechnique technique;
+        private final Combatant target;
+        private final List<Position> tiles;
+
+        Threat(CursedTechnique technique, Combatant target, List<Position> tiles) {
+            this.technique = technique;
+            this.target = target;
+            this.tiles = Collections.unmodifiableList(tiles);
+        }
+
+        /** Technique used, or {@code null} for a basic attack. */
+        public CursedTechnique getTechnique() { return technique; }
+        public boolean isBasicAttack()         { return technique == null; }
+        public Combatant getTarget()           { return target; }
+        public List<Position> getTiles()       { return tiles; }
+    }
+
+    private final Combatant unit;
+    private final Position origin;
+    private final List<Threat> threats;
+
+    ThreatMap(Combatant unit, Position origin, List<Threat> threats) {
+        this.unit = unit;
+        this.origin = origin;
+        this.threats = Collections.unmodifiableList(threats);
+    }
+
+    public Combatant getUnit()      { return unit; }
+    public Position getOrigin()     { return origin; }
+    public List<Threat> getThreats() { return threats; }
+    public boolean isEmpty()        { return threats.isEmpty(); }
+
+    public List<Threat> getAttackThreats() {
+        return getTechniqueThreats(null);
+    }
+
+    public List<Threat> getTechniqueThreats(CursedTechnique technique) {
+        List<Threat> result = new ArrayList<>();
+        for (Threat t : threats) {
+            if (t.technique == technique) result.add(t);
+        }
+        return result;
+    }
+
+    /** Every enemy the unit can hit this turn with some action, in team order. */
+    public Set<Combatant> getThreatenedTargets() {
+        Set<Combatant> targets = new LinkedHashSet<>();
+        for (Threat t : threats) targets.add(t.target);
+        return targets;
+    }
+}
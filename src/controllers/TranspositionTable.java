@@ -0,0 +1,62 @@
+package controllers;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table on parallel primitive arrays, indexed by the low
+ * bits of the Zobrist hash. A slot is replaced unless it holds a deeper result
+ * for the same key.
+ */
+final class TranspositionTable {
+
+    static final byte EXACT = 0;
+    static final byte LOWER_BOUND = 1;
+    static final byte UPPER_BOUND = 2;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] flags;
+    private final short[] moves;
+    private final int mask;
+
+    TranspositionTable(int log2Size) {
+        int size = 1 << log2Size;
+        keys = new long[size];
+        scores = new int[size];
+        depths = new byte[size];
+        flags = new byte[size];
+        moves = new short[size];
+        mask = size - 1;
+    }
+
+    /** Slot holding {@code key}, or -1 on a miss. */
+    int probe(long key) {
+        int slot = slotOf(key);
+        return depths[slot] > 0 && keys[slot] == key ? slot : -1;
+    }
+
+    /** Only searched nodes ({@code depth >= 1}) are stored. */
+    void store(long key, int depth, int score, byte flag, int move) {
+        int slot = slotOf(key);
+        if (keys[slot] == key && depths[slot] > depth) return;
+        keys[slot] = key;
+        depths[slot] = (byte) depth;
+        scores[slot] = score;
+        flags[slot] = flag;
+        moves[slot] = (short) move;
+    }
+
+    int getScore(int slot) { return scores[slot]; }
+    int getDepth(int slot) { return depths[slot]; }
+    byte getFlag(int slot) { return flags[slot]; }
+    int getMove(int slot)  { return moves[slot]; }
+
+    void clear() {
+        Arrays.fill(depths, (byte) 0);
+    }
+
+    private int slotOf(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,100 @@
+package controllers;
+
+import models.Combatant;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One whole turn for the search AIs: an optional move, then a strike on a roster
+ * index, or defend when {@code target < 0}. Indices rather than references let a
+ * plan be replayed on copies of the battle.
+ */
+final class TurnPlan {
+
+    final Position moveTo;
+    final int technique;
+    final int target;
+
+    TurnPlan(Position moveTo, int technique, int target) {
+        this.moveTo = moveTo;
+        this.technique = technique;
+        this.target = target;
+    }
+
+    boolean isStrike() { return target >= 0; }
+
+    /**
+     * Candidate turns for the current unit: every move-then-strike option from the
+     * threat map (stepping as little as possible), advancing on the closest enemy,
+     * and holding position.
+     */
+    static List<TurnPlan> generate(BattleManager battle) {
+        List<TurnPlan> plans = new ArrayList<>();
+        Combatant unit = battle.getCurrentUnit();
+        Position origin = battle.getUnitPosition(unit);
+        List<Combatant> roster = battle.getRoster();
+        List<CursedTechnique> techs = battle.getAllTechniquesForUnit(unit);
+
+        for (ThreatMap.Threat threat : battle.getThreatMap().getThreats()) {
+            Position tile = closestTo(threat.getTiles(), origin);
+            int tech = threat.isBasicAttack() ? -1 : techs.indexOf(threat.getTechnique());
+            plans.add(new TurnPlan(origin.equals(tile) ? null : tile, tech, roster.indexOf(threat.getTarget())));
+        }
+
+        Position nearestEnemy = null;
+        for (Combatant enemy : battle.getOpposingTeam(unit).getAliveMembers()) {
+            Position p = battle.getUnitPosition(enemy);
+            if (p != null && (nearestEnemy == null
+                    || origin.chebyshevDistance(p) < origin.chebyshevDistance(nearestEnemy))) {
+                nearestEnemy = p;
+            }
+        }
+        if (nearestEnemy != null) {
+            Position advance = closestTo(battle.getMovablePositions(), nearestEnemy);
+            if (advance != null && advance.chebyshevDistance(nearestEnemy) < origin.chebyshevDistance(nearestEnemy)) {
+                plans.add(new TurnPlan(advance, -1, -1));
+            }
+        }
+        plans.add(new TurnPlan(null, -1, -1));
+        return plans;
+    }
+
+    static Position closestTo(List<Position> tiles, Position target) {
+        Position best = null;
+        int bestDist = Integer.MAX_VALUE;
+        for (Position p : tiles) {
+            int dist = p.chebyshevDistance(target);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    /** Executes the plan and ends the turn; falls back to defending if the strike is no longer possible. */
+    void apply(BattleManager battle) {
+        Combatant unit = battle.getCurrentUnit();
+        if (moveTo != null) battle.moveUnit(moveTo);
+
+        boolean acted = false;
+        Combatant victim = target >= 0 ? battle.getRoster().get(target) : null;
+        if (victim != null && victim.isAlive()) {
+            if (technique >= 0) {
+                CursedTechnique tech = battle.getAllTechniquesForUnit(unit).get(technique);
+                if (battle.getAvailableTechniques().contains(tech)
+                        && battle.getTechniqueTargets(tech).contains(victim)) {
+                    acted = battle.useTechnique(tech, victim);
+                }
+            } else if (battle.getAttackableTargets().contains(victim)) {
+                battle.basicAttack(victim);
+                acted = true;
+            }
+        }
+        if (!acted) battle.defend();
+        battle.endTurn();
+    }
+}
@@ -0,0 +1,213 @@
+package controllers;
+
+import enums.TurnMode;
+
+import java.util.Arrays;
+
+/** Очередь ходов: индексированная двоичная куча по слотам ростера. */
+final class TurnScheduler {
+
+    static final int TICKS_PER_ROUND = 1000;
+    /** Скорость, при которой юнит в режиме инициативы ходит ровно раз за раунд. */
+    static final int REFERENCE_SPEED = 25;
+
+    private final TurnMode mode;
+    private final long[] time;
+    private final int[] speed;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int size;
+    private int round;
+    private long now;
+
+    private int[] acted;
+    private int actedCount;
+    private int version;
+
+    TurnScheduler(TurnMode mode, int slots, int round) {
+        this.mode      = mode;
+        this.time      = new long[slots];
+        this.speed     = new int[slots];
+        this.heap      = new int[slots];
+        this.heapIndex = new int[slots];
+        this.acted     = new int[Math.max(1, slots)];
+        this.round     = round;
+        this.now       = roundStart(round);
+        Arrays.fill(heapIndex, -1);
+    }
+
+    TurnScheduler(TurnScheduler source) {
+        this.mode       = source.mode;
+        this.time       = source.time.clone();
+        this.speed      = source.speed.clone();
+        this.heap       = source.heap.clone();
+        this.heapIndex  = source.heapIndex.clone();
+        this.acted      = source.acted.clone();
+        this.size       = source.size;
+        this.round      = source.round;
+        this.now        = source.now;
+        this.actedCount = source.actedCount;
+        this.version    = source.version;
+    }
+
+    void reset(int round) {
+        for (int i = 0; i < size; i++) heapIndex[heap[i]] = -1;
+        size = 0;
+        this.round = round;
+        now = roundStart(round);
+        actedCount = 0;
+        version++;
+    }
+
+    boolean isEmpty() { return size == 0; }
+
+    int getVersion()  { return version; }
+
+    void addAtRoundStart(int slot, int unitSpeed) {
+        speed[slot] = unitSpeed;
+        time[slot] = mode == TurnMode.ROUNDS
+                ? round
+                : roundStart(round) + Math.min(interval(unitSpeed), TICKS_PER_ROUND) - 1;
+        insert(slot);
+    }
+
+    /** Puts a slot back at a captured point of the round's timeline, e.g. from a checkpoint. */
+    void restore(int slot, int offset, int unitSpeed) {
+        speed[slot] = unitSpeed;
+        time[slot] = roundStart(round) + offset;
+        insert(slot);
+    }
+
+    void remove(int slot) {
+        int i = heapIndex[slot];
+        if (i < 0) return;
+        int last = heap[--size];
+        heapIndex[slot] = -1;
+        if (i < size) {
+            heap[i] = last;
+            heapIndex[last] = i;
+            siftDown(i);
+            siftUp(heapIndex[last]);
+        }
+        version++;
+    }
+
+    int peek() {
+        if (size == 0) return -1;
+        int top = heap[0];
+        return time[top] < roundStart(round + 1) ? top : -1;
+    }
+
+    void acted(int slot, int unitSpeed) {
+        // На шкале инициативы быстрый юнит может ходить несколько раз за раунд
+        if (actedCount == acted.length) acted = Arrays.copyOf(acted, actedCount * 2);
+        acted[actedCount++] = slot;
+        if (heapIndex[slot] < 0) return;
+        now = time[slot];
+        speed[slot] = unitSpeed;
+        time[slot] = mode == TurnMode.ROUNDS ? round + 1 : now + interval(unitSpeed);
+        siftDown(heapIndex[slot]);
+        if (mode == TurnMode.INITIATIVE) version++;
+    }
+
+    int offsetOf(int slot) {
+        return heapIndex[slot] < 0 ? -1 : (int) (time[slot] - roundStart(round));
+    }
+
+    int speedOf(int slot) { return speed[slot]; }
+
+    void setSpeed(int slot, int unitSpeed) {
+        int i = heapIndex[slot];
+        if (i < 0 || speed[slot] == unitSpeed) return;
+        if (mode == TurnMode.INITIATIVE) {
+            long remaining = Math.max(0, time[slot] - now);
+            time[slot] = now + remaining * Math.max(1, speed[slot]) / Math.max(1, unitSpeed);
+        }
+        speed[slot] = unitSpeed;
+        siftUp(i);
+        siftDown(heapIndex[slot]);
+        version++;
+    }
+
+    void nextRound() {
+        round++;
+        now = Math.max(now, roundStart(round));
+        actedCount = 0;
+        version++;
+    }
+
+    int[] order() {
+        long end = roundStart(round + 1);
+        int[] pending = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (time[heap[i]] < end) pending[count++] = heap[i];
+        }
+        for (int i = 1; i < count; i++) {
+            int slot = pending[i];
+            int j = i - 1;
+            while (j >= 0 && before(slot, pending[j])) {
+                pending[j + 1] = pending[j];
+                j--;
+            }
+            pending[j + 1] = slot;
+        }
+        int[] order = Arrays.copyOf(acted, actedCount + count);
+        System.arraycopy(pending, 0, order, actedCount, count);
+        return order;
+    }
+
+    private long roundStart(int r) {
+        return mode == TurnMode.ROUNDS ? r : (long) (r - 1) * TICKS_PER_ROUND;
+    }
+
+    private static long interval(int unitSpeed) {
+        return (long) TICKS_PER_ROUND * REFERENCE_SPEED / Math.max(1, unitSpeed);
+    }
+
+    private boolean before(int a, int b) {
+        if (time[a] != time[b]) return time[a] < time[b];
+        if (speed[a] != speed[b]) return speed[a] > speed[b];
+        return a < b;
+    }
+
+    private void insert(int slot) {
+        if (heapIndex[slot] >= 0) {
+            siftUp(heapIndex[slot]);
+            siftDown(heapIndex[slot]);
+        } else {
+            heap[size] = slot;
+            heapIndex[slot] = size;
+            siftUp(size++);
+        }
+        version++;
+    }
+
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(slot, heap[parent])) break;
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = slot;
+        heapIndex[slot] = i;
+    }
+
+    private void siftDown(int i) {
+        int slot = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], slot)) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = slot;
+        heapIndex[slot] = i;
+    }
+}
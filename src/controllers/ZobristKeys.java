@@ -0,0 +1,71 @@
+package controllers;
+
+import models.Combatant;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fixed random keys for Zobrist hashing of battle states. Units are addressed by
+ * roster slot; HP and cursed energy are hashed in coarse buckets.
+ */
+final class ZobristKeys {
+
+    static final int MAX_TECHNIQUES = 8;
+
+    private static final long POSITION_SEED  = 0x3C6EF372FE94F82BL;
+    private static final long HP_SEED        = 0xA54FF53A5F1D36F1L;
+    private static final long CE_SEED        = 0x510E527FADE682D1L;
+    private static final long COOLDOWN_SEED  = 0x9B05688C2B3E6C1FL;
+    private static final long DEFENDING_SEED = 0x1F83D9ABFB41BD6BL;
+    private static final long TURN_SEED      = 0x5BE0CD19137E2179L;
+    private static final int HP_BUCKETS = 17;
+    private static final int CE_BUCKETS = 64;
+    private static final int CE_PER_BUCKET = 25;
+
+    static final long MOVED;
+    static final long ACTED;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4A4B5A6F62726973L);
+        MOVED = random.nextLong();
+        ACTED = random.nextLong();
+    }
+
+    private ZobristKeys() {}
+
+    /**
+     * Keys are mixed from their fields rather than looked up, so they cover any roster
+     * and grid size without per-slot tables (a slots x tiles table would be 20 MB at 512x512).
+     */
+    private static long mix(long seed, long key) {
+        long z = seed + key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static long position(int slot, int x, int y) {
+        return mix(POSITION_SEED, ((long) slot << 40) | ((long) x << 20) | y);
+    }
+
+    static long hp(int slot, int bucket)       { return mix(HP_SEED, (long) slot * HP_BUCKETS + bucket); }
+    static long ce(int slot, int bucket)       { return mix(CE_SEED, (long) slot * CE_BUCKETS + bucket); }
+    static long defending(int slot)            { return mix(DEFENDING_SEED, slot); }
+    static long turn(int slot)                 { return mix(TURN_SEED, slot); }
+
+    /** Keyed by roster slot and registry technique ID; 0 cooldown hashes to nothing. */
+    static long cooldown(int slot, int techniqueId, int remaining) {
+        if (remaining <= 0) return 0L;
+        return mix(COOLDOWN_SEED, ((long) slot << 40) | ((long) techniqueId << 20) | Math.min(remaining, 0xFFFFF));
+    }
+
+    /** 0 for defeated units, otherwise 1..16 by share of max HP. */
+    static int hpBucket(Combatant unit) {
+        if (unit.getHp() <= 0) return 0;
+        return 1 + (unit.getHp() * (HP_BUCKETS - 2)) / unit.getMaxHp();
+    }
+
+    static int ceBucket(int cursedEnergy) {
+        return Math.min(CE_BUCKETS - 1, Math.max(0, cursedEnergy) / CE_PER_BUCKET);
+    }
+}
@@ -1,6 +1,19 @@
 package enums;
 
 public enum TileType {
-    PLAINS,
-    OBSTACLE
+    PLAINS(true),
+    OBSTACLE(false);
+
+    private static final TileType[] VALUES = values();
+
+    private final boolean walkable;
+
+    TileType(boolean walkable) {
+        this.walkable = walkable;
+    }
+
+    public boolean isWalkable() { return walkable; }
+
+    /** Inverse of {@link #ordinal()} without cloning {@code values()}. */
+    public static TileType byOrdinal(int ordinal) { return VALUES[ordinal]; }
 }
@@ -0,0 +1,8 @@
+package enums;
+
+public enum TurnMode {
+    /** Every living unit acts once per round, fastest first. */
+    ROUNDS,
+    /** Units act when their initiative comes up; fast units may act several times a round. */
+    INITIATIVE
+}
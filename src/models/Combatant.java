@@ -1,6 +1,13 @@
 package models;
 
-public abstract class Combatant {
+import java.util.Arrays;
+
+public abstract class Combatant implements Cloneable {
+
+    public static final int FACTION_PLAYER = 0;
+    public static final int FACTION_ENEMY  = 1;
+
+    private static final SorcererTeam[] NO_TEAMS = new SorcererTeam[0];
 
     private String name;
     private int hp;
@@ -12,6 +19,10 @@ public abstract class Combatant {
     private boolean alive;
     private int experience;
     private int expToNextLevel;
+    private int battleIndex = -1;
+    private int battleFaction = -1;
+    /** Teams that list this unit; told about deaths and revivals to keep their alive views current. */
+    private SorcererTeam[] teams = NO_TEAMS;
 
     public Combatant(String name, int maxHp, int attack, int defense, int speed) {
         this.name = name;
@@ -31,7 +42,7 @@ public abstract class Combatant {
         hp -= actualDamage;
         if (hp <= 0) {
             hp = 0;
-            alive = false;
+            setAlive(false);
         }
     }
 
@@ -44,8 +55,14 @@ public abstract class Combatant {
 
     public void revive(int hpAmount) {
         if (alive) return;
-        alive = true;
         hp = Math.max(1, Math.min(maxHp, hpAmount));
+        setAlive(true);
+    }
+
+    /** Sets HP directly, e.g. when restoring a saved battle state; 0 HP means defeated. */
+    public void restoreHp(int hpAmount) {
+        hp = Math.min(maxHp, Math.max(0, hpAmount));
+        setAlive(hp > 0);
     }
 
     public void levelUp() {
@@ -87,7 +104,42 @@ public abstract class Combatant {
     protected void setDefense(int defense) { this.defense = defense; }
     protected void setSpeed(int speed) { this.speed = speed; }
     protected void setLevel(int level) { this.level = level; }
-    protected void setAlive(boolean alive) { this.alive = alive; }
+
+    protected void setAlive(boolean alive) {
+        if (this.alive == alive) return;
+        this.alive = alive;
+        for (SorcererTeam team : teams) team.onAliveChanged(alive);
+    }
+
+    void joinTeam(SorcererTeam team) {
+        SorcererTeam[] grown = Arrays.copyOf(teams, teams.length + 1);
+        grown[teams.length] = team;
+        teams = grown;
+    }
+
+    void leaveTeam(SorcererTeam team) {
+        for (int i = 0; i < teams.length; i++) {
+            if (teams[i] == team) {
+                SorcererTeam[] shrunk = new SorcererTeam[teams.length - 1];
+                System.arraycopy(teams, 0, shrunk, 0, i);
+                System.arraycopy(teams, i + 1, shrunk, i, shrunk.length - i);
+                teams = shrunk;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dense index and side in the battle the unit was last deployed to; set by
+     * BattleManager.initBattle, which checks the index still points back to the unit.
+     */
+    public void assignBattleSlot(int index, int faction) {
+        this.battleIndex = index;
+        this.battleFaction = faction;
+    }
+
+    public int getBattleIndex()   { return battleIndex; }
+    public int getBattleFaction() { return battleFaction; }
 
     public int getBasicAttackBlackFlashChance() { return 5; }
 
@@ -101,6 +153,20 @@ public abstract class Combatant {
 
     public abstract String getInfo();
 
+    /**
+     * Независимая копия юнита со всем текущим состоянием (HP, ПЭ, уровень).
+     * Списки техник остаются общими — техники не хранят состояния.
+     */
+    public Combatant copy() {
+        try {
+            Combatant copy = (Combatant) super.clone();
+            copy.teams = NO_TEAMS;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("%s [HP: %d/%d, ATK: %d, DEF: %d, SPD: %d, LVL: %d]",
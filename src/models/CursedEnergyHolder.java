@@ -8,4 +8,5 @@ public interface CursedEnergyHolder {
     int getCursedEnergy();
     int getMaxCursedEnergy();
     boolean useCursedEnergy(int amount);
+    void setCursedEnergy(int cursedEnergy);
 }
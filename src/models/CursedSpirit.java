@@ -32,7 +32,7 @@ public abstract class CursedSpirit extends Combatant implements CursedEnergyHold
     public int getMaxCursedEnergy() { return maxCursedEnergy; }
     public Grade getCurseGrade() { return curseGrade; }
 
-    protected void setCursedEnergy(int cursedEnergy) { this.cursedEnergy = cursedEnergy; }
+    public void setCursedEnergy(int cursedEnergy) { this.cursedEnergy = cursedEnergy; }
     protected void setMaxCursedEnergy(int maxCursedEnergy) { this.maxCursedEnergy = maxCursedEnergy; }
 
     @Override
@@ -26,6 +26,12 @@ public class CursedSpiritMob extends CursedSpirit {
         }
     }
 
+    @Override
+    public void restoreHp(int hpAmount) {
+        super.restoreHp(hpAmount);
+        membersAlive = (int) Math.ceil((double) getHp() / hpPerMember);
+    }
+
     public int getSwarmSize() { return swarmSize; }
     public int getMembersAlive() { return membersAlive; }
 
@@ -1,6 +1,7 @@
 package models;
 
 import enums.DistrictStatus;
+import enums.TurnMode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,6 +9,8 @@ import models.Mission;
 
 public class District {
 
+    public static final int DEFAULT_BATTLE_SIZE = 10;
+
     private final String name;
     private final String description;
     private DistrictStatus status;
@@ -18,6 +21,11 @@ public class District {
     private final List<District> neighbors;
     private int incomePerTurn;
     private Mission currentMission;
+    private SorcererTeam combinedEnemies;
+    private int combinedVersion;
+    private int battleWidth = DEFAULT_BATTLE_SIZE;
+    private int battleHeight = DEFAULT_BATTLE_SIZE;
+    private TurnMode turnMode = TurnMode.ROUNDS;
 
     public District(String name, String description, DistrictStatus status,
                     int x, int y, int curseLevel, int incomePerTurn) {
@@ -45,6 +53,7 @@ public class District {
 
     public void clearEnemies() {
         enemyTeams.clear();
+        releaseCombined();
         curseLevel = 0;
     }
 
@@ -52,16 +61,52 @@ public class District {
         return !enemyTeams.isEmpty();
     }
 
+    /**
+     * All enemy teams of the district as one team. The team is cached until a roster
+     * changes; its members are the district's own units, so damage carries over.
+     */
     public SorcererTeam getCombinedEnemyTeam() {
+        int version = combinedRosterVersion();
+        if (combinedEnemies != null && combinedVersion == version) return combinedEnemies;
+
+        releaseCombined();
         SorcererTeam combined = new SorcererTeam("Curses of " + name);
         for (SorcererTeam team : enemyTeams) {
             for (Combatant c : team.getMembers()) {
                 combined.addMember(c);
             }
         }
+        combinedEnemies = combined;
+        combinedVersion = version;
         return combined;
     }
 
+    private void releaseCombined() {
+        if (combinedEnemies != null) combinedEnemies.release();
+        combinedEnemies = null;
+    }
+
+    private int combinedRosterVersion() {
+        int version = enemyTeams.size();
+        for (SorcererTeam team : enemyTeams) version += team.getRosterVersion();
+        return version;
+    }
+
+    /** Sets the size of the tactical grid for fights in this district. */
+    public void setBattleSize(int width, int height) {
+        if (width < 1 || height < 1 || width > Terrain.MAX_SIZE || height > Terrain.MAX_SIZE) {
+            throw new IllegalArgumentException("Battle grid " + width + "x" + height
+                    + " is outside 1.." + Terrain.MAX_SIZE);
+        }
+        this.battleWidth = width;
+        this.battleHeight = height;
+    }
+
+    /** Fresh terrain for a battle here; every fight starts on an unchanged field. */
+    public Terrain createTerrain() {
+        return new Terrain(battleWidth, battleHeight);
+    }
+
     public boolean isNeighbor(District other) {
         return neighbors.contains(other);
     }
@@ -77,6 +122,10 @@ public class District {
     public List<SorcererTeam> getEnemyTeams() { return enemyTeams; }
     public List<District> getNeighbors() { return neighbors; }
     public int getIncomePerTurn() { return incomePerTurn; }
+    public int getBattleWidth() { return battleWidth; }
+    public int getBattleHeight() { return battleHeight; }
+    public TurnMode getTurnMode() { return turnMode; }
+    public void setTurnMode(TurnMode turnMode) { this.turnMode = turnMode; }
     public Mission getMission() { return currentMission; }
     public void setMission(Mission mission) { this.currentMission = mission; }
 
@@ -26,6 +26,12 @@ public class GenericSorcererSquad extends Sorcerer {
         }
     }
 
+    @Override
+    public void restoreHp(int hpAmount) {
+        super.restoreHp(hpAmount);
+        membersAlive = (int) Math.ceil((double) getHp() / hpPerMember);
+    }
+
     public int getMembersAlive() { return membersAlive; }
     public int getSquadSize() { return squadSize; }
 
@@ -44,7 +44,7 @@ public abstract class Sorcerer extends Combatant implements CursedEnergyHolder {
     public int getMaxCursedEnergy() { return maxCursedEnergy; }
     public Grade getGrade() { return grade; }
 
-    protected void setCursedEnergy(int cursedEnergy) { this.cursedEnergy = cursedEnergy; }
+    public void setCursedEnergy(int cursedEnergy) { this.cursedEnergy = cursedEnergy; }
     protected void setMaxCursedEnergy(int maxCursedEnergy) { this.maxCursedEnergy = maxCursedEnergy; }
     protected void setGrade(Grade grade) { this.grade = grade; }
 
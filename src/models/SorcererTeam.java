@@ -1,8 +1,8 @@
 package models;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SorcererTeam {
 
@@ -10,6 +10,11 @@ public class SorcererTeam {
 
     private String teamName;
     private final List<Combatant> members;
+    /** Kept current by the members themselves on death and revival. */
+    private int aliveCount;
+    /** Immutable alive list, rebuilt on first read after a change; null while stale. */
+    private List<Combatant> aliveView;
+    private int rosterVersion;
 
     public SorcererTeam(String teamName) {
         this.teamName = teamName;
@@ -20,26 +25,83 @@ public class SorcererTeam {
         if (members.size() >= MAX_TEAM_SIZE) {
             return false;
         }
-        members.add(combatant);
+        attach(combatant);
         return true;
     }
 
     public boolean removeMember(Combatant combatant) {
-        return members.remove(combatant);
+        if (!members.remove(combatant)) return false;
+        combatant.leaveTeam(this);
+        if (combatant.isAlive()) aliveCount--;
+        aliveView = null;
+        rosterVersion++;
+        return true;
+    }
+
+    /** Empties a team that is being thrown away, so its members stop notifying it. */
+    void release() {
+        for (Combatant member : members) member.leaveTeam(this);
+        members.clear();
+        aliveCount = 0;
+        aliveView = null;
+        rosterVersion++;
+    }
+
+    private void attach(Combatant combatant) {
+        members.add(combatant);
+        combatant.joinTeam(this);
+        if (combatant.isAlive()) aliveCount++;
+        aliveView = null;
+        rosterVersion++;
+    }
+
+    void onAliveChanged(boolean alive) {
+        aliveCount += alive ? 1 : -1;
+        aliveView = null;
+    }
+
+    /** Membership test without copying the member list. */
+    public boolean contains(Combatant combatant) {
+        return members.contains(combatant);
     }
 
     public List<Combatant> getMembers() {
         return new ArrayList<>(members);
     }
 
+    /**
+     * Living members in roster order. The list is read-only and is not updated in place:
+     * a death or revival makes the next call return a new list.
+     */
     public List<Combatant> getAliveMembers() {
-        return members.stream()
-                .filter(Combatant::isAlive)
-                .collect(Collectors.toList());
+        List<Combatant> view = aliveView;
+        if (view == null) {
+            List<Combatant> alive = new ArrayList<>(aliveCount);
+            for (Combatant member : members) {
+                if (member.isAlive()) alive.add(member);
+            }
+            view = Collections.unmodifiableList(alive);
+            aliveView = view;
+        }
+        return view;
     }
 
+    public int getAliveCount() { return aliveCount; }
+
     public boolean isDefeated() {
-        return getAliveMembers().isEmpty();
+        return aliveCount == 0;
+    }
+
+    /** Grows whenever a member is added or removed. */
+    public int getRosterVersion() { return rosterVersion; }
+
+    /** Copies the team with independent copies of every member, for simulations. */
+    public SorcererTeam copy() {
+        SorcererTeam copy = new SorcererTeam(teamName);
+        for (Combatant member : members) {
+            copy.attach(member.copy());
+        }
+        return copy;
     }
 
     public int getSize() { return members.size(); }
@@ -48,7 +110,7 @@ public class SorcererTeam {
     public String getInfo() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("=== Team: %s (%d/%d alive) ===%n",
-                teamName, getAliveMembers().size(), members.size()));
+                teamName, aliveCount, members.size()));
         for (Combatant member : members) {
             String status = member.isAlive() ? "ALIVE" : "DEAD";
             sb.append(String.format("  [%s] %s%n", status, member));
@@ -59,6 +121,6 @@ public class SorcererTeam {
     @Override
     public String toString() {
         return String.format("Team %s [%d/%d alive]",
-                teamName, getAliveMembers().size(), members.size());
+                teamName, aliveCount, members.size());
     }
 }
@@ -11,9 +11,23 @@ public class TechTree {
 
     private final Set<Technology> researched = EnumSet.noneOf(Technology.class);
 
+    private double damageBonusPct;
+    private double ceCostMultiplier;
+    private int    bonusMaxCE;
+    private double spawnChanceMultiplier;
+    private double fieldHealBonus;
+    private int    version;
+
     public TechTree() {
         
         researched.add(Technology.BASIC_COMBAT);
+        recompute();
+    }
+
+    /** Restores a tree with exactly the given technologies researched, e.g. from a replay. */
+    public TechTree(Set<Technology> researched) {
+        this.researched.addAll(researched);
+        recompute();
     }
 
     public boolean isResearched(Technology tech) {
@@ -30,6 +44,7 @@ public class TechTree {
         if (!canResearch(tech)) return false;
         if (tech.getCost() > 0 && !resources.spendGradePoints(tech.getCost())) return false;
         researched.add(tech);
+        recompute();
         return true;
     }
 
@@ -41,33 +56,36 @@ public class TechTree {
         return Arrays.asList(Technology.values());
     }
 
-    public double getDamageBonusPct() {
+    /** Research changes the modifiers; readers can compare versions instead of values. */
+    public int getVersion() { return version; }
+
+    public double getDamageBonusPct()       { return damageBonusPct; }
+    public double getCECostMultiplier()     { return ceCostMultiplier; }
+    public int    getBonusMaxCE()           { return bonusMaxCE; }
+    public double getSpawnChanceMultiplier() { return spawnChanceMultiplier; }
+    public double getFieldHealBonus()       { return fieldHealBonus; }
+
+    /** Folds the researched set into the modifiers once, so combat reads plain fields. */
+    private void recompute() {
         double bonus = 0.0;
         if (isResearched(Technology.BASIC_COMBAT))    bonus += 0.05;
         if (isResearched(Technology.ADVANCED_COMBAT)) bonus += 0.10;
         if (isResearched(Technology.MASTER_COMBAT))   bonus += 0.15;
-        return bonus;
-    }
+        damageBonusPct = bonus;
 
-    public double getCECostMultiplier() {
-        double mult = 1.0;
-        if (isResearched(Technology.CE_EFFICIENCY)) mult -= 0.15;
-        if (isResearched(Technology.CE_MASTERY))    mult -= 0.05;
-        return Math.max(0.5, mult);
-    }
+        double costMult = 1.0;
+        if (isResearched(Technology.CE_EFFICIENCY)) costMult -= 0.15;
+        if (isResearched(Technology.CE_MASTERY))    costMult -= 0.05;
+        ceCostMultiplier = Math.max(0.5, costMult);
 
-    public int getBonusMaxCE() {
-        return isResearched(Technology.CE_MASTERY) ? 30 : 0;
-    }
+        bonusMaxCE = isResearched(Technology.CE_MASTERY) ? 30 : 0;
 
-    public double getSpawnChanceMultiplier() {
-        double mult = 1.0;
-        if (isResearched(Technology.BARRIER_BASICS))    mult -= 0.20;
-        if (isResearched(Technology.ADVANCED_BARRIERS)) mult -= 0.40;
-        return Math.max(0.0, mult);
-    }
+        double spawnMult = 1.0;
+        if (isResearched(Technology.BARRIER_BASICS))    spawnMult -= 0.20;
+        if (isResearched(Technology.ADVANCED_BARRIERS)) spawnMult -= 0.40;
+        spawnChanceMultiplier = Math.max(0.0, spawnMult);
 
-    public double getFieldHealBonus() {
-        return isResearched(Technology.FIELD_MEDICINE) ? 0.10 : 0.0;
+        fieldHealBonus = isResearched(Technology.FIELD_MEDICINE) ? 0.10 : 0.0;
+        version++;
     }
 }
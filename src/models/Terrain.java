@@ -0,0 +1,75 @@
+package models;
+
+import enums.TileType;
+import utils.GridMask;
+
+/**
+ * Местность боевого поля: порядковые номера {@link TileType} в байтовых блоках
+ * 64x64 плюс готовая битовая маска проходимости. Блок выделяется только при первой
+ * записи непустой клетки, так что большое ровное поле почти ничего не занимает.
+ */
+public class Terrain {
+
+    public static final int MAX_SIZE = 512;
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+
+    private final int width;
+    private final int height;
+    private final int chunksY;
+    /** Chunk (cx, cy) at {@code cx * chunksY + cy}; null chunks are all PLAINS. */
+    private final byte[][] chunks;
+    private final GridMask walkable;
+
+    public Terrain(int width, int height) {
+        if (width < 1 || height < 1 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Battle grid " + width + "x" + height
+                    + " is outside 1.." + MAX_SIZE);
+        }
+        this.width = width;
+        this.height = height;
+        this.chunksY = (height + CHUNK - 1) >> CHUNK_BITS;
+        this.chunks = new byte[((width + CHUNK - 1) >> CHUNK_BITS) * chunksY][];
+        this.walkable = new GridMask(width, height);
+        walkable.setAll();
+    }
+
+    public int getWidth()  { return width; }
+    public int getHeight() { return height; }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public TileType getType(int x, int y) {
+        byte[] chunk = chunks[chunkIndex(x, y)];
+        return chunk == null ? TileType.PLAINS : TileType.byOrdinal(chunk[cellIndex(x, y)]);
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return walkable.get(x, y);
+    }
+
+    public void setType(int x, int y, TileType type) {
+        int c = chunkIndex(x, y);
+        byte[] chunk = chunks[c];
+        if (chunk == null) {
+            if (type == TileType.PLAINS) return;
+            chunk = chunks[c] = new byte[CHUNK * CHUNK];
+        }
+        chunk[cellIndex(x, y)] = (byte) type.ordinal();
+        if (type.isWalkable()) walkable.set(x, y);
+        else walkable.clear(x, y);
+    }
+
+    /** Walkable tiles; shared, so callers copy it rather than modify it. */
+    public GridMask getWalkable() { return walkable; }
+
+    private int chunkIndex(int x, int y) {
+        return (x >> CHUNK_BITS) * chunksY + (y >> CHUNK_BITS);
+    }
+
+    private static int cellIndex(int x, int y) {
+        return ((x & (CHUNK - 1)) << CHUNK_BITS) | (y & (CHUNK - 1));
+    }
+}
@@ -0,0 +1,36 @@
+package simulation;
+
+import enums.BattleState;
+
+/** Исход боя по модели Ланчестера: шанс победы, длительность и доля оставшегося HP сторон. */
+public class AutoResolveResult {
+
+    private final BattleState outcome;
+    private final double winProbability;
+    private final int rounds;
+    private final double playerHpFraction;
+    private final double enemyHpFraction;
+
+    AutoResolveResult(BattleState outcome, double winProbability, int rounds,
+                      double playerHpFraction, double enemyHpFraction) {
+        this.outcome          = outcome;
+        this.winProbability   = winProbability;
+        this.rounds           = rounds;
+        this.playerHpFraction = playerHpFraction;
+        this.enemyHpFraction  = enemyHpFraction;
+    }
+
+    /** Sampled outcome; for {@link AutoResolver#predict} it is simply the likelier one. */
+    public BattleState getOutcome()        { return outcome; }
+    public boolean isVictory()             { return outcome == BattleState.VICTORY; }
+    public double getWinProbability()      { return winProbability; }
+    public int getRounds()                 { return rounds; }
+    public double getPlayerHpFraction()    { return playerHpFraction; }
+    public double getEnemyHpFraction()     { return enemyHpFraction; }
+
+    @Override
+    public String toString() {
+        return String.format("%s  p(win) %.2f  ~%d rounds  HP left: player %.0f%%, enemy %.0f%%",
+                outcome, winProbability, rounds, playerHpFraction * 100, enemyHpFraction * 100);
+    }
+}
@@ -0,0 +1,299 @@
+package simulation;
+
+import controllers.AIController;
+import controllers.BattleManager;
+import enums.BattleState;
+import enums.TurnMode;
+import models.Combatant;
+import models.CursedEnergyHolder;
+import models.NamedSorcerer;
+import models.SorcererTeam;
+import models.SpecialCurse;
+import models.TechTree;
+import models.Terrain;
+import systems.RandomService;
+import techniques.CursedTechnique;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Автобой без тактической карты: исход считается по квадратичному закону Ланчестера. */
+public class AutoResolver {
+
+    private static final int APPROACH_ROUNDS = 2;
+    private static final int CLOSING_TILES_PER_ROUND = 6;
+    private static final double MIN_SURVIVOR_FRACTION = 0.10;
+    private static final int PROBE_ATTACK = 1000;
+
+    private static final Map<Class<?>, Double> MULTIPLIERS = new ConcurrentHashMap<>();
+
+    private final OutcomeCache outcomes = new OutcomeCache(AIController::new, AIController::new);
+    private volatile double enemyEfficiency = 1.0;
+    private volatile double sharpness = 3.0;
+
+    public double getEnemyEfficiency() { return enemyEfficiency; }
+    public double getSharpness()       { return sharpness; }
+    public OutcomeCache getOutcomeCache() { return outcomes; }
+
+    public AutoResolveResult predict(SorcererTeam playerTeam, SorcererTeam enemyTeam,
+                                     TechTree techTree, int turnLimit) {
+        return predict(playerTeam, enemyTeam, techTree, null, turnLimit);
+    }
+
+    public AutoResolveResult predict(SorcererTeam playerTeam, SorcererTeam enemyTeam,
+                                     TechTree techTree, Terrain terrain, int turnLimit) {
+        Model m = new Model(playerTeam, enemyTeam, techTree, turnLimit, approachRounds(terrain),
+                enemyEfficiency, sharpness);
+        return m.result(m.winProbability >= 0.5);
+    }
+
+    public AutoResolveResult resolve(SorcererTeam playerTeam, SorcererTeam enemyTeam,
+                                     TechTree techTree, int turnLimit, long seed) {
+        return resolve(playerTeam, enemyTeam, techTree, null, turnLimit, seed);
+    }
+
+    public AutoResolveResult resolve(SorcererTeam playerTeam, SorcererTeam enemyTeam,
+                                     TechTree techTree, Terrain terrain, int turnLimit, long seed) {
+        Model m = new Model(playerTeam, enemyTeam, techTree, turnLimit, approachRounds(terrain),
+                enemyEfficiency, sharpness);
+        boolean victory = new SplittableRandom(seed).nextDouble() < m.winProbability;
+        AutoResolveResult result = m.result(victory);
+        applyLosses(playerTeam, result.getPlayerHpFraction());
+        applyLosses(enemyTeam, result.getEnemyHpFraction());
+        return result;
+    }
+
+    public double calibrate(List<SorcererTeam[]> scenarios, TechTree techTree, int battles, long baseSeed) {
+        return calibrate(scenarios, techTree, TurnMode.ROUNDS, battles, baseSeed);
+    }
+
+    /** Подгоняет константы модели под бои AI против AI без UI; возвращает среднеквадратичную ошибку. */
+    public double calibrate(List<SorcererTeam[]> scenarios, TechTree techTree, TurnMode turnMode,
+                            int battles, long baseSeed) {
+        double[] observed = new double[scenarios.size()];
+        for (int s = 0; s < scenarios.size(); s++) {
+            SorcererTeam[] scenario = scenarios.get(s);
+            observed[s] = outcomes.get(scenario[0], scenario[1], techTree, null, turnMode, battles,
+                    RandomService.deriveSeed(baseSeed, s)).getWinRate();
+        }
+
+        double bestError = Double.MAX_VALUE;
+        double bestEfficiency = enemyEfficiency;
+        double bestSharpness = sharpness;
+        for (int e = -8; e <= 8; e++) {
+            double efficiency = Math.pow(2.0, e / 4.0);
+            for (double slope = 1.0; slope <= 8.0; slope += 0.5) {
+                double error = 0.0;
+                for (int s = 0; s < scenarios.size(); s++) {
+                    SorcererTeam[] scenario = scenarios.get(s);
+                    double p = new Model(scenario[0], scenario[1], techTree, 0, APPROACH_ROUNDS,
+                            efficiency, slope).winProbability;
+                    error += (p - observed[s]) * (p - observed[s]);
+                }
+                if (error < bestError) {
+                    bestError = error;
+                    bestEfficiency = efficiency;
+                    bestSharpness = slope;
+                }
+            }
+        }
+        enemyEfficiency = bestEfficiency;
+        sharpness = bestSharpness;
+        return scenarios.isEmpty() ? 0.0 : bestError / scenarios.size();
+    }
+
+    private static void applyLosses(SorcererTeam team, double fraction) {
+        List<Combatant> alive = new ArrayList<>(team.getAliveMembers());
+        int pool = 0;
+        for (Combatant c : alive) pool += c.getHp();
+        int loss = pool - (int) Math.round(pool * fraction);
+        if (loss <= 0) return;
+
+        alive.sort(Comparator.comparingInt(Combatant::getHp));
+        int i = 0;
+        while (i < alive.size() && loss >= alive.get(i).getHp()) {
+            loss -= alive.get(i).getHp();
+            pool -= alive.get(i).getHp();
+            alive.get(i).restoreHp(0);
+            i++;
+        }
+        int remaining = loss;
+        for (int j = i; j < alive.size() && remaining > 0; j++) {
+            Combatant c = alive.get(j);
+            int share = j == alive.size() - 1 ? remaining : (int) ((long) loss * c.getHp() / pool);
+            share = Math.min(share, c.getHp() - 1);
+            c.restoreHp(c.getHp() - share);
+            remaining -= share;
+        }
+    }
+
+    private static int approachRounds(Terrain terrain) {
+        if (terrain == null) return APPROACH_ROUNDS;
+        int extra = Math.max(0, terrain.getWidth() - BattleManager.DEFAULT_GRID_SIZE);
+        return APPROACH_ROUNDS + (extra + CLOSING_TILES_PER_ROUND - 1) / CLOSING_TILES_PER_ROUND;
+    }
+
+    /** dX/dt = -b*Y, dY/dt = -a*X по пулам HP. */
+    private static class Model {
+        final double playerPool;
+        final double enemyPool;
+        final double playerFire;
+        final double enemyFire;
+        final double winProbability;
+        final int approach;
+
+        Model(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree, int turnLimit,
+              int approach, double efficiency, double sharpness) {
+            this.approach = approach;
+            List<Combatant> players = playerTeam.getAliveMembers();
+            List<Combatant> enemies = enemyTeam.getAliveMembers();
+            playerPool = hpPool(players);
+            enemyPool  = hpPool(enemies);
+
+            // Первый проход оценивает длину боя, второй распределяет по ней ПЭ
+            int horizon = 6;
+            double pf = 0, ef = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                pf = firepower(players, enemies, techTree, horizon);
+                ef = firepower(enemies, players, null, horizon) * efficiency;
+                horizon = Math.max(1, Math.min(BattleSimulator.DEFAULT_ROUND_LIMIT,
+                        roundsToWin(pf, ef, playerPool, enemyPool) - approach));
+            }
+            playerFire = pf;
+            enemyFire  = ef;
+
+            double p;
+            if (enemyPool == 0) p = 1.0;
+            else if (playerPool == 0 || playerFire == 0) p = 0.0;
+            else if (enemyFire == 0) p = 1.0;
+            else p = odds(playerFire * playerPool / (enemyFire * enemyPool), sharpness);
+            if (turnLimit > 0 && p > 0 && p < 1) {
+                p *= odds((double) turnLimit / roundsToWin(playerFire, enemyFire, playerPool, enemyPool), sharpness);
+            }
+            winProbability = p;
+        }
+
+        AutoResolveResult result(boolean victory) {
+            double playerLeft, enemyLeft;
+            int rounds;
+            if (victory) {
+                playerLeft = survivors(playerPool, enemyPool, playerFire, enemyFire);
+                enemyLeft  = 0.0;
+                rounds     = roundsToWin(playerFire, enemyFire, playerPool, enemyPool);
+            } else {
+                playerLeft = 0.0;
+                enemyLeft  = survivors(enemyPool, playerPool, enemyFire, playerFire);
+                rounds     = roundsToWin(enemyFire, playerFire, enemyPool, playerPool);
+            }
+            return new AutoResolveResult(victory ? BattleState.VICTORY : BattleState.DEFEAT,
+                    winProbability, rounds, playerLeft, enemyLeft);
+        }
+
+        private static double survivors(double pool, double otherPool, double fire, double otherFire) {
+            if (pool == 0) return 0.0;
+            if (fire == 0 || otherPool == 0) return 1.0;
+            double left = pool * pool - otherFire * pool * otherPool / fire;
+            return Math.max(MIN_SURVIVOR_FRACTION, left > 0 ? Math.sqrt(left) / pool : 0.0);
+        }
+
+        /** tanh(k*t) = Y0*sqrt(b) / (X0*sqrt(a)). */
+        private int roundsToWin(double fire, double otherFire, double pool, double otherPool) {
+            if (otherPool == 0) return approach;
+            if (fire == 0 || pool == 0) return Integer.MAX_VALUE / 2;
+            double a = fire / pool;
+            double b = otherFire / otherPool;
+            double t;
+            if (b == 0) {
+                t = otherPool / fire;
+            } else {
+                double ratio = Math.min(0.999, otherPool * Math.sqrt(b) / (pool * Math.sqrt(a)));
+                t = 0.5 * Math.log((1 + ratio) / (1 - ratio)) / Math.sqrt(a * b);
+            }
+            return approach + (int) Math.ceil(t);
+        }
+
+        private static double odds(double ratio, double sharpness) {
+            double x = Math.pow(ratio, sharpness);
+            return Double.isInfinite(x) ? 1.0 : x / (1.0 + x);
+        }
+    }
+
+    private static double hpPool(List<Combatant> units) {
+        double pool = 0;
+        for (Combatant c : units) pool += c.getHp();
+        return pool;
+    }
+
+    private static double firepower(List<Combatant> units, List<Combatant> targets, TechTree techTree, int horizon) {
+        if (targets.isEmpty()) return 0.0;
+        double defenseSum = 0;
+        for (Combatant t : targets) defenseSum += t.getDefense();
+        double defense = defenseSum / targets.size();
+
+        double damageBonus = techTree != null ? techTree.getDamageBonusPct() : 0.0;
+        double costMult    = techTree != null ? techTree.getCECostMultiplier() : 1.0;
+
+        double total = 0;
+        for (Combatant unit : units) {
+            double basic = hit((int) (unit.getAttack() * (1.0 + damageBonus)), defense,
+                    unit.getBasicAttackBlackFlashChance());
+
+            List<CursedTechnique> techs = new ArrayList<>(techniques(unit));
+            techs.sort(Comparator.comparingDouble(t -> -techniqueHit(unit, t, defense)));
+            double turnsLeft = 1.0;
+            double ce = unit instanceof CursedEnergyHolder ? ((CursedEnergyHolder) unit).getCursedEnergy() : 0;
+            double perTurn = 0;
+            for (CursedTechnique tech : techs) {
+                double dmg = techniqueHit(unit, tech, defense);
+                if (dmg <= basic || turnsLeft <= 0) break;
+                int cost = (int) Math.ceil(tech.getCursedEnergyCost() * costMult);
+                double share = Math.min(turnsLeft, 1.0 / (tech.getCooldown() + 1));
+                if (cost > 0) share = Math.min(share, ce / ((double) cost * horizon));
+                ce -= share * cost * horizon;
+                turnsLeft -= share;
+                perTurn += share * dmg;
+            }
+            total += perTurn + turnsLeft * basic;
+        }
+        return total;
+    }
+
+    private static double techniqueHit(Combatant unit, CursedTechnique tech, double defense) {
+        int chance = tech.canTriggerBlackFlash() ? tech.getBlackFlashChance() : 0;
+        return hit((int) (unit.getAttack() * multiplier(tech)), defense, chance);
+    }
+
+    private static double hit(int raw, double defense, int blackFlashChance) {
+        double landed = Math.max(1.0, raw - defense);
+        double bonus  = Math.max(1.0, (int) (landed * 1.5) - defense);
+        return landed + blackFlashChance / 100.0 * bonus;
+    }
+
+    public static double multiplier(CursedTechnique tech) {
+        return MULTIPLIERS.computeIfAbsent(tech.getClass(), c -> {
+            Probe user = new Probe();
+            Probe target = new Probe();
+            int before = target.getHp();
+            tech.execute(user, target);
+            return (before - target.getHp()) / (double) PROBE_ATTACK;
+        });
+    }
+
+    private static List<CursedTechnique> techniques(Combatant unit) {
+        if (unit instanceof NamedSorcerer) return ((NamedSorcerer) unit).getTechniques();
+        if (unit instanceof SpecialCurse) return ((SpecialCurse) unit).getTechniques();
+        return Collections.emptyList();
+    }
+
+    private static class Probe extends Combatant {
+        Probe() { super("probe", 1_000_000, PROBE_ATTACK, 0, 0); }
+
+        @Override
+        public String getInfo() { return "probe"; }
+    }
+}
@@ -0,0 +1,65 @@
+package simulation;
+
+import enums.BattleState;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Агрегированная статистика серии боёв. Хранит только счётчики и гистограммы,
+ * отдельные бои не запоминаются.
+ */
+public class BatchStats {
+
+    private long battles;
+    private long victories;
+    private long totalRounds;
+    private long totalCasualties;
+    private final Map<String, DamageHistogram> damageByTechnique = new TreeMap<>();
+
+    void recordBattle(BattleState outcome, int rounds, int casualties) {
+        battles++;
+        if (outcome == BattleState.VICTORY) victories++;
+        totalRounds += rounds;
+        totalCasualties += casualties;
+    }
+
+    void recordHit(String technique, int damage) {
+        damageByTechnique.computeIfAbsent(technique, k -> new DamageHistogram()).record(damage);
+    }
+
+    void merge(BatchStats other) {
+        battles     += other.battles;
+        victories   += other.victories;
+        totalRounds += other.totalRounds;
+        totalCasualties += other.totalCasualties;
+        for (Map.Entry<String, DamageHistogram> e : other.damageByTechnique.entrySet()) {
+            damageByTechnique.computeIfAbsent(e.getKey(), k -> new DamageHistogram()).merge(e.getValue());
+        }
+    }
+
+    BatchStats copy() {
+        BatchStats copy = new BatchStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getBattles()       { return battles; }
+    public long getVictories()     { return victories; }
+    public long getDefeats()       { return battles - victories; }
+    public double getWinRate()     { return battles == 0 ? 0.0 : (double) victories / battles; }
+    public double getAverageRounds() { return battles == 0 ? 0.0 : (double) totalRounds / battles; }
+    /** Mean number of player units that fell per battle. */
+    public double getAverageCasualties() { return battles == 0 ? 0.0 : (double) totalCasualties / battles; }
+
+    public Map<String, DamageHistogram> getDamageByTechnique() {
+        return Collections.unmodifiableMap(damageByTechnique);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d battles, win rate %.1f%%, avg %.1f rounds",
+                battles, getWinRate() * 100, getAverageRounds());
+    }
+}
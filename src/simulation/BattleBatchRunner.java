@@ -0,0 +1,167 @@
+package simulation;
+
+import controllers.AIStrategy;
+import controllers.BattleListener;
+import enums.BattleState;
+import enums.TurnMode;
+import models.Combatant;
+import models.SorcererTeam;
+import models.TechTree;
+import models.Terrain;
+import systems.RandomService;
+import utils.Position;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Пакетный Монте-Карло прогон боёв на fork-join пуле. Каждый бой идёт на
+ * собственных копиях команд и с собственным сидом, выведенным из базового
+ * сида и номера боя, поэтому итог не зависит от числа потоков.
+ */
+public class BattleBatchRunner {
+
+    public static final String BASIC_ATTACK = "Basic Attack";
+
+    private static final int BATTLES_PER_TASK = 64;
+
+    private final SorcererTeam playerTemplate;
+    private final SorcererTeam enemyTemplate;
+    private final Supplier<AIStrategy> playerAI;
+    private final Supplier<AIStrategy> enemyAI;
+    private final ForkJoinPool pool;
+    private TechTree techTree;
+    private Terrain terrain;
+    private TurnMode turnMode = TurnMode.ROUNDS;
+    private int maxRounds = BattleSimulator.DEFAULT_ROUND_LIMIT;
+
+    public BattleBatchRunner(SorcererTeam playerTemplate, SorcererTeam enemyTemplate,
+                             Supplier<AIStrategy> playerAI, Supplier<AIStrategy> enemyAI) {
+        this(playerTemplate, enemyTemplate, playerAI, enemyAI, ForkJoinPool.commonPool());
+    }
+
+    public BattleBatchRunner(SorcererTeam playerTemplate, SorcererTeam enemyTemplate,
+                             Supplier<AIStrategy> playerAI, Supplier<AIStrategy> enemyAI,
+                             ForkJoinPool pool) {
+        this.playerTemplate = playerTemplate.copy();
+        this.enemyTemplate  = enemyTemplate.copy();
+        this.playerAI       = playerAI;
+        this.enemyAI        = enemyAI;
+        this.pool           = pool;
+    }
+
+    public void setTechTree(TechTree techTree) { this.techTree = techTree; }
+    public void setMaxRounds(int maxRounds)    { this.maxRounds = maxRounds; }
+    /** Must not change while a batch runs; workers share it. */
+    public void setTerrain(Terrain terrain)    { this.terrain = terrain; }
+    public void setTurnMode(TurnMode turnMode) { this.turnMode = turnMode; }
+
+    public BatchStats run(int battles, long baseSeed) {
+        return run(battles, baseSeed, null);
+    }
+
+    /**
+     * Runs {@code battles} battles and returns the merged statistics. If given,
+     * {@code progress} receives a snapshot of the running totals each time a chunk
+     * of battles completes; it may be called from any worker thread.
+     */
+    public BatchStats run(int battles, long baseSeed, Consumer<BatchStats> progress) {
+        return run(battles, baseSeed, progress, () -> false);
+    }
+
+    /**
+     * As above, but stops starting new battles once {@code cancelled} returns true;
+     * the result then holds only the battles already finished.
+     */
+    public BatchStats run(int battles, long baseSeed, Consumer<BatchStats> progress, BooleanSupplier cancelled) {
+        BatchStats total = new BatchStats();
+        pool.invoke(new BatchTask(0, battles, baseSeed, total, progress, cancelled));
+        return total;
+    }
+
+    @SuppressWarnings("serial")
+    private class BatchTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long baseSeed;
+        private final BatchStats total;
+        private final Consumer<BatchStats> progress;
+        private final BooleanSupplier cancelled;
+
+        BatchTask(int from, int to, long baseSeed, BatchStats total, Consumer<BatchStats> progress,
+                  BooleanSupplier cancelled) {
+            this.from      = from;
+            this.to        = to;
+            this.baseSeed  = baseSeed;
+            this.total     = total;
+            this.progress  = progress;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATTLES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(from, mid, baseSeed, total, progress, cancelled),
+                          new BatchTask(mid, to, baseSeed, total, progress, cancelled));
+                return;
+            }
+
+            BatchStats local = new BatchStats();
+            BattleSimulator simulator = new BattleSimulator();
+            simulator.setTechTree(techTree);
+            simulator.setMaxRounds(maxRounds);
+            simulator.setTerrain(terrain);
+            simulator.setTurnMode(turnMode);
+            simulator.addListener(new HitRecorder(local));
+            AIStrategy playerStrategy = playerAI.get();
+            AIStrategy enemyStrategy  = enemyAI.get();
+
+            int fielded = playerTemplate.getAliveMembers().size();
+            for (int i = from; i < to; i++) {
+                if (cancelled.getAsBoolean()) break;
+                BattleResult result = simulator.run(playerTemplate.copy(), enemyTemplate.copy(),
+                        RandomService.deriveSeed(baseSeed, i), playerStrategy, enemyStrategy);
+                local.recordBattle(result.getOutcome(), result.getRounds(),
+                        fielded - result.getPlayerSurvivors().size());
+            }
+            if (local.getBattles() == 0) return;
+
+            BatchStats snapshot;
+            synchronized (total) {
+                total.merge(local);
+                snapshot = progress != null ? total.copy() : null;
+            }
+            if (snapshot != null) progress.accept(snapshot);
+        }
+    }
+
+    private static class HitRecorder implements BattleListener {
+        private final BatchStats stats;
+
+        HitRecorder(BatchStats stats) { this.stats = stats; }
+
+        @Override public void onBattleStarted() {}
+        @Override public void onTurnStarted(Combatant unit) {}
+        @Override public void onUnitMoved(Combatant unit, Position from, Position to) {}
+
+        @Override
+        public void onUnitAttacked(Combatant attacker, Combatant target, int damage, boolean blackFlash) {
+            stats.recordHit(BASIC_ATTACK, damage);
+        }
+
+        @Override
+        public void onTechniqueUsed(Combatant user, Combatant target, String techniqueName,
+                                    int damage, String animationType, Position targetPos) {
+            stats.recordHit(techniqueName, damage);
+        }
+
+        @Override public void onUnitDefended(Combatant unit) {}
+        @Override public void onUnitDefeated(Combatant unit) {}
+        @Override public void onBattleEnded(BattleState result) {}
+        @Override public void onMessage(String message) {}
+    }
+}
@@ -0,0 +1,41 @@
+package simulation;
+
+import enums.BattleState;
+import models.Combatant;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/** Итог одного боя без UI: исход, число раундов, урон по юнитам и выжившие. */
+public class BattleResult {
+
+    private final BattleState outcome;
+    private final int rounds;
+    private final Map<Combatant, Integer> damageDealt;
+    private final List<Combatant> playerSurvivors;
+    private final List<Combatant> enemySurvivors;
+
+    public BattleResult(BattleState outcome, int rounds, Map<Combatant, Integer> damageDealt,
+                        List<Combatant> playerSurvivors, List<Combatant> enemySurvivors) {
+        this.outcome         = outcome;
+        this.rounds          = rounds;
+        this.damageDealt     = Collections.unmodifiableMap(damageDealt);
+        this.playerSurvivors = Collections.unmodifiableList(playerSurvivors);
+        this.enemySurvivors  = Collections.unmodifiableList(enemySurvivors);
+    }
+
+    public BattleState getOutcome()               { return outcome; }
+    public boolean isVictory()                    { return outcome == BattleState.VICTORY; }
+    public int getRounds()                        { return rounds; }
+    public Map<Combatant, Integer> getDamageDealt() { return damageDealt; }
+    public int getDamageDealt(Combatant unit)     { return damageDealt.getOrDefault(unit, 0); }
+    public List<Combatant> getPlayerSurvivors()   { return playerSurvivors; }
+    public List<Combatant> getEnemySurvivors()    { return enemySurvivors; }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d rounds [survivors: %d vs %d]",
+                outcome, rounds, playerSurvivors.size(), enemySurvivors.size());
+    }
+}
@@ -0,0 +1,94 @@
+package simulation;
+
+import controllers.AIStrategy;
+import controllers.BattleListener;
+import controllers.BattleManager;
+import enums.BattleState;
+import enums.TurnMode;
+import models.Combatant;
+import models.SorcererTeam;
+import models.TechTree;
+import models.Terrain;
+import utils.Position;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Безголовый прогон боя без Swing: обе стороны ведёт ИИ, бой идёт синхронно
+ * до VICTORY/DEFEAT без таймеров и анимаций.
+ * Команды изменяются на месте, как и в обычном бою через BattleFrame.
+ */
+public class BattleSimulator {
+
+    /** Safety cap for battles without a mission turn limit; running out counts as DEFEAT. */
+    public static final int DEFAULT_ROUND_LIMIT = 100;
+
+    private TechTree techTree;
+    private Terrain terrain;
+    private TurnMode turnMode = TurnMode.ROUNDS;
+    private int maxRounds = DEFAULT_ROUND_LIMIT;
+    private final List<BattleListener> listeners = new ArrayList<>();
+
+    public void setTechTree(TechTree techTree) { this.techTree = techTree; }
+    public void setMaxRounds(int maxRounds)    { this.maxRounds = maxRounds; }
+    /** Battle grid, shared read-only by every battle; null means the default 10x10 field. */
+    public void setTerrain(Terrain terrain)    { this.terrain = terrain; }
+    public void setTurnMode(TurnMode turnMode) { this.turnMode = turnMode; }
+
+    /** Extra listener attached to every battle this simulator runs. */
+    public void addListener(BattleListener listener) { listeners.add(listener); }
+
+    public BattleResult run(SorcererTeam playerTeam, SorcererTeam enemyTeam, long seed,
+                            AIStrategy playerAI, AIStrategy enemyAI) {
+        BattleManager battle = terrain != null ? new BattleManager(seed, terrain) : new BattleManager(seed);
+        if (techTree != null) battle.setTechTree(techTree);
+        battle.setMaxRounds(maxRounds);
+        battle.setTurnMode(turnMode);
+
+        DamageTally tally = new DamageTally();
+        battle.addListener(tally);
+        for (BattleListener l : listeners) battle.addListener(l);
+        battle.initBattle(playerTeam, enemyTeam);
+        battle.startBattle();
+
+        battle.setPlayerStrategy(playerAI);
+        battle.setEnemyStrategy(enemyAI);
+        while (!isFinished(battle.getState())) {
+            battle.playStrategyTurn();
+        }
+
+        return new BattleResult(battle.getState(), battle.getRoundNumber(), tally.damage,
+                playerTeam.getAliveMembers(), enemyTeam.getAliveMembers());
+    }
+
+    static boolean isFinished(BattleState state) {
+        return state == BattleState.VICTORY || state == BattleState.DEFEAT;
+    }
+
+    private static class DamageTally implements BattleListener {
+        final Map<Combatant, Integer> damage = new HashMap<>();
+
+        @Override public void onBattleStarted() {}
+        @Override public void onTurnStarted(Combatant unit) {}
+        @Override public void onUnitMoved(Combatant unit, Position from, Position to) {}
+
+        @Override
+        public void onUnitAttacked(Combatant attacker, Combatant target, int dmg, boolean blackFlash) {
+            damage.merge(attacker, dmg, Integer::sum);
+        }
+
+        @Override
+        public void onTechniqueUsed(Combatant user, Combatant target, String techniqueName,
+                                    int dmg, String animationType, Position targetPos) {
+            damage.merge(user, dmg, Integer::sum);
+        }
+
+        @Override public void onUnitDefended(Combatant unit) {}
+        @Override public void onUnitDefeated(Combatant unit) {}
+        @Override public void onBattleEnded(BattleState result) {}
+        @Override public void onMessage(String message) {}
+    }
+}
@@ -0,0 +1,46 @@
+package simulation;
+
+/** Гистограмма урона за одно применение с фиксированной шириной корзин. */
+public class DamageHistogram {
+
+    public static final int BUCKET_WIDTH = 10;
+    public static final int BUCKET_COUNT = 40;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long total;
+    private int max;
+
+    public void record(int damage) {
+        int bucket = Math.min(BUCKET_COUNT - 1, Math.max(0, damage) / BUCKET_WIDTH);
+        buckets[bucket]++;
+        count++;
+        total += damage;
+        max = Math.max(max, damage);
+    }
+
+    public void merge(DamageHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) buckets[i] += other.buckets[i];
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public DamageHistogram copy() {
+        DamageHistogram copy = new DamageHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /** Hits whose damage fell into {@code [i * BUCKET_WIDTH, (i + 1) * BUCKET_WIDTH)}; the last bucket is open-ended. */
+    public long getBucket(int i) { return buckets[i]; }
+    public long getCount()       { return count; }
+    public long getTotalDamage() { return total; }
+    public int getMaxDamage()    { return max; }
+    public double getMeanDamage() { return count == 0 ? 0.0 : (double) total / count; }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, avg %.1f, max %d", count, getMeanDamage(), max);
+    }
+}
@@ -0,0 +1,154 @@
+package simulation;
+
+import controllers.AIStrategy;
+import controllers.BattleManager;
+import enums.TurnMode;
+import models.Combatant;
+import models.CursedEnergyHolder;
+import models.SorcererTeam;
+import models.TechTree;
+import models.Terrain;
+import models.Technology;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/** LRU-кэш пакетных прогонов по каноническому составу команд; сид в ключ не входит. */
+public class OutcomeCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int HP_BUCKETS = 16;
+    private static final int CE_BUCKET  = 25;
+
+    private final Supplier<AIStrategy> playerAI;
+    private final Supplier<AIStrategy> enemyAI;
+    private final Map<String, BatchStats> entries;
+    private int maxRounds = BattleSimulator.DEFAULT_ROUND_LIMIT;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public OutcomeCache(Supplier<AIStrategy> playerAI, Supplier<AIStrategy> enemyAI) {
+        this(DEFAULT_CAPACITY, playerAI, enemyAI);
+    }
+
+    public OutcomeCache(int capacity, Supplier<AIStrategy> playerAI, Supplier<AIStrategy> enemyAI) {
+        this.playerAI = playerAI;
+        this.enemyAI  = enemyAI;
+        this.entries  = new LinkedHashMap<String, BatchStats>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BatchStats> eldest) {
+                if (size() <= capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public synchronized void setMaxRounds(int maxRounds) { this.maxRounds = maxRounds; }
+
+    public BatchStats get(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree,
+                          Terrain terrain, TurnMode turnMode, int battles, long baseSeed) {
+        return get(playerTeam, enemyTeam, techTree, terrain, turnMode, 0, battles, baseSeed, null, () -> false);
+    }
+
+    /**
+     * A positive {@code turnLimit} replaces the cache's round limit for this matchup.
+     * {@code progress} and {@code cancelled} work as in {@link BattleBatchRunner}; a
+     * cancelled run returns the battles finished so far and is not cached.
+     */
+    public BatchStats get(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree,
+                          Terrain terrain, TurnMode turnMode, int turnLimit, int battles, long baseSeed,
+                          Consumer<BatchStats> progress, BooleanSupplier cancelled) {
+        int rounds;
+        String key;
+        synchronized (this) {
+            rounds = turnLimit > 0 ? turnLimit : maxRounds;
+            key = key(playerTeam, enemyTeam, techTree, terrain, turnMode, rounds, battles);
+            BatchStats cached = lookup(key);
+            if (cached != null) return cached;
+        }
+
+        BattleBatchRunner runner = new BattleBatchRunner(playerTeam, enemyTeam, playerAI, enemyAI);
+        runner.setTechTree(techTree);
+        runner.setMaxRounds(rounds);
+        runner.setTerrain(terrain);
+        if (turnMode != null) runner.setTurnMode(turnMode);
+        BatchStats stats = runner.run(battles, baseSeed, progress, cancelled);
+        if (stats.getBattles() < battles) return stats;
+
+        synchronized (this) {
+            BatchStats raced = entries.putIfAbsent(key, stats);
+            return raced != null ? raced : stats;
+        }
+    }
+
+    public synchronized BatchStats lookup(String key) {
+        BatchStats cached = entries.get(key);
+        if (cached != null) hits++;
+        else misses++;
+        return cached;
+    }
+
+    public synchronized void put(String key, BatchStats stats) {
+        entries.put(key, stats);
+    }
+
+    public synchronized int getMaxRounds() { return maxRounds; }
+
+    public synchronized void clear()       { entries.clear(); }
+    public synchronized int size()         { return entries.size(); }
+    public synchronized long getHits()     { return hits; }
+    public synchronized long getMisses()   { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public static String key(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree,
+                             Terrain terrain, TurnMode turnMode, int maxRounds, int battles) {
+        StringBuilder sb = new StringBuilder();
+        side(sb, playerTeam);
+        sb.append('|');
+        side(sb, enemyTeam);
+        sb.append('|');
+        if (techTree != null) {
+            for (Technology tech : techTree.getResearched()) sb.append(tech.ordinal()).append(',');
+        }
+        sb.append('|');
+        if (terrain != null) sb.append(terrain.getWidth()).append('x').append(terrain.getHeight());
+        else sb.append(BattleManager.DEFAULT_GRID_SIZE).append('x').append(BattleManager.DEFAULT_GRID_SIZE);
+        sb.append('|').append(turnMode != null ? turnMode : TurnMode.ROUNDS);
+        sb.append('|').append(maxRounds);
+        return sb.append('|').append(battles).toString();
+    }
+
+    private static void side(StringBuilder sb, SorcererTeam team) {
+        List<String> units = new ArrayList<>();
+        for (Combatant c : team.getMembers()) {
+            if (!c.isAlive()) continue;
+            int hp = c.getHp() * HP_BUCKETS / Math.max(1, c.getMaxHp());
+            int ce = c instanceof CursedEnergyHolder ? ((CursedEnergyHolder) c).getCursedEnergy() / CE_BUCKET : 0;
+            units.add(c.getClass().getName() + ':' + c.getLevel() + ':' + c.getMaxHp() + '/' + c.getAttack()
+                    + '/' + c.getDefense() + '/' + c.getSpeed() + ':' + hp + ':' + ce);
+        }
+        Collections.sort(units);
+        sb.append(String.join(";", units));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d entries, %d hits / %d misses (%.1f%%), %d evicted",
+                entries.size(), hits, misses, getHitRate() * 100, evictions);
+    }
+}
@@ -0,0 +1,151 @@
+package simulation;
+
+import controllers.AIStrategy;
+import controllers.BattleManager;
+import models.SorcererTeam;
+import systems.RandomService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Круговой турнир стратегий ИИ без UI. Каждая пара играет каждый сценарий за обе
+ * стороны с одинаковыми сидами; партии идут параллельно, а рейтинг Эло считается
+ * после всех партий в фиксированном порядке, поэтому итог не зависит от числа потоков.
+ * Упор в лимит раундов считается ничьей.
+ */
+public class Tournament {
+
+    public static final double INITIAL_RATING = 1500.0;
+    public static final double K_FACTOR = 16.0;
+
+    private final ForkJoinPool pool;
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<AIStrategy>> entrants = new ArrayList<>();
+    private final List<SorcererTeam[]> scenarios = new ArrayList<>();
+    private int maxRounds = BattleSimulator.DEFAULT_ROUND_LIMIT;
+
+    public Tournament() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Tournament(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** {@code factory} is called once per game, so strategies need not be thread-safe. */
+    public void addEntrant(String name, Supplier<AIStrategy> factory) {
+        names.add(name);
+        entrants.add(factory);
+    }
+
+    /** Teams are templates; every game fights fresh copies. */
+    public void addScenario(SorcererTeam playerTeam, SorcererTeam enemyTeam) {
+        scenarios.add(new SorcererTeam[]{playerTeam, enemyTeam});
+    }
+
+    public void setMaxRounds(int maxRounds) { this.maxRounds = maxRounds; }
+
+    /** Plays every pairing on every scenario {@code gamesPerSide} times per side; standings best first. */
+    public List<TournamentStanding> run(int gamesPerSide, long baseSeed) {
+        List<Callable<GameResult>> games = new ArrayList<>();
+        int gameIndex = 0;
+        for (int a = 0; a < entrants.size(); a++) {
+            for (int b = a + 1; b < entrants.size(); b++) {
+                for (SorcererTeam[] scenario : scenarios) {
+                    for (int g = 0; g < gamesPerSide; g++) {
+                        long seed = RandomService.deriveSeed(baseSeed, gameIndex++);
+                        games.add(game(a, b, scenario, seed));
+                        games.add(game(b, a, scenario, seed));
+                    }
+                }
+            }
+        }
+
+        List<TournamentStanding> standings = new ArrayList<>();
+        for (String name : names) standings.add(new TournamentStanding(name, INITIAL_RATING));
+
+        for (Future<GameResult> future : pool.invokeAll(games)) {
+            GameResult result;
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Tournament interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tournament game failed", e.getCause());
+            }
+            TournamentStanding player = standings.get(result.player);
+            TournamentStanding enemy = standings.get(result.enemy);
+            double expected = 1.0 / (1.0 + Math.pow(10.0, (enemy.getRating() - player.getRating()) / 400.0));
+            double delta = K_FACTOR * (result.score - expected);
+            player.addRating(delta);
+            enemy.addRating(-delta);
+            player.record(result.score);
+            enemy.record(1.0 - result.score);
+            player.addDecisions(result.playerClock.decisions, result.playerClock.nanos);
+            enemy.addDecisions(result.enemyClock.decisions, result.enemyClock.nanos);
+        }
+
+        standings.sort(Comparator.comparingDouble(TournamentStanding::getRating).reversed());
+        return standings;
+    }
+
+    private Callable<GameResult> game(int player, int enemy, SorcererTeam[] scenario, long seed) {
+        return () -> {
+            TimedStrategy playerAI = new TimedStrategy(entrants.get(player).get());
+            TimedStrategy enemyAI = new TimedStrategy(entrants.get(enemy).get());
+            BattleSimulator simulator = new BattleSimulator();
+            simulator.setMaxRounds(maxRounds);
+            BattleResult result = simulator.run(scenario[0].copy(), scenario[1].copy(), seed, playerAI, enemyAI);
+
+            double score;
+            if (result.isVictory()) score = 1.0;
+            else if (result.getPlayerSurvivors().isEmpty()) score = 0.0;
+            else score = 0.5;
+            return new GameResult(player, enemy, score, playerAI, enemyAI);
+        };
+    }
+
+    private static class GameResult {
+        final int player;
+        final int enemy;
+        final double score;
+        final TimedStrategy playerClock;
+        final TimedStrategy enemyClock;
+
+        GameResult(int player, int enemy, double score, TimedStrategy playerClock, TimedStrategy enemyClock) {
+            this.player = player;
+            this.enemy = enemy;
+            this.score = score;
+            this.playerClock = playerClock;
+            this.enemyClock = enemyClock;
+        }
+    }
+
+    /** Counts decisions and the wall-clock time spent in them. */
+    private static class TimedStrategy implements AIStrategy {
+        private final AIStrategy delegate;
+        long decisions;
+        long nanos;
+
+        TimedStrategy(AIStrategy delegate) { this.delegate = delegate; }
+
+        @Override
+        public void playTurn(BattleManager battle) {
+            long start = System.nanoTime();
+            delegate.playTurn(battle);
+            nanos += System.nanoTime() - start;
+            decisions++;
+        }
+
+        @Override
+        public String getName() { return delegate.getName(); }
+    }
+}
@@ -0,0 +1,48 @@
+package simulation;
+
+/**
+ * Итог одного участника турнира: рейтинг Эло, счёт партий и время на решение.
+ */
+public class TournamentStanding {
+
+    private final String name;
+    private double rating;
+    private int wins;
+    private int losses;
+    private int draws;
+    private long decisions;
+    private long decisionNanos;
+
+    TournamentStanding(String name, double rating) {
+        this.name = name;
+        this.rating = rating;
+    }
+
+    void record(double score) {
+        if (score > 0.5) wins++;
+        else if (score < 0.5) losses++;
+        else draws++;
+    }
+
+    void addRating(double delta)              { rating += delta; }
+    void addDecisions(long count, long nanos) { decisions += count; decisionNanos += nanos; }
+
+    public String getName()      { return name; }
+    public double getRating()    { return rating; }
+    public int getWins()         { return wins; }
+    public int getLosses()       { return losses; }
+    public int getDraws()        { return draws; }
+    public int getGames()        { return wins + losses + draws; }
+    public long getDecisions()   { return decisions; }
+
+    /** Mean wall-clock time per turn decision, in microseconds. */
+    public double getMicrosPerDecision() {
+        return decisions == 0 ? 0.0 : decisionNanos / 1000.0 / decisions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-24s Elo %6.1f  %4d-%4d-%4d  %10.1f us/decision",
+                name, rating, wins, losses, draws, getMicrosPerDecision());
+    }
+}
@@ -0,0 +1,12 @@
+package simulation.raid;
+
+/** Отсчитывает перезарядку сигнатурных техник в начале раунда. */
+final class CooldownSystem {
+
+    void update(RaidUnits units) {
+        int[] cooldown = units.cooldown;
+        for (int i = 0; i < units.count; i++) {
+            if (cooldown[i] > 0) cooldown[i]--;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package simulation.raid;
+
+import java.util.SplittableRandom;
+
+/** Удары и техники: цель — враг с наименьшим HP в радиусе. */
+final class DamageSystem {
+
+    void update(RaidUnits units, RaidField field, int[] order, SplittableRandom random) {
+        for (int i : order) {
+            if (units.hp[i] <= 0) continue;
+            int target = techniqueReady(units, i) ? weakestEnemy(units, field, i, units.techRange[i]) : -1;
+            if (target >= 0) {
+                units.ce[i] -= units.techCost[i];
+                units.cooldown[i] = units.techCooldown[i];
+                strike(units, field, i, target, units.techDamage[i], units.techBlackFlash[i], random);
+            } else {
+                target = weakestEnemy(units, field, i, units.attackRange[i]);
+                if (target >= 0) {
+                    strike(units, field, i, target, units.attack[i], units.blackFlashChance[i], random);
+                }
+            }
+        }
+    }
+
+    static boolean techniqueReady(RaidUnits units, int i) {
+        return units.techDamage[i] > 0 && units.cooldown[i] == 0 && units.ce[i] >= units.techCost[i];
+    }
+
+    private static void strike(RaidUnits units, RaidField field, int attacker, int target, int raw,
+                               int blackFlashChance, SplittableRandom random) {
+        int dealt = hit(units, field, attacker, target, raw);
+        if (units.hp[target] > 0 && blackFlashChance > 0 && random.nextInt(100) < blackFlashChance) {
+            hit(units, field, attacker, target, (int) (dealt * 1.5));
+        }
+    }
+
+    private static int hit(RaidUnits units, RaidField field, int attacker, int target, int raw) {
+        int before = units.hp[target];
+        units.hp[target] = Math.max(0, before - Math.max(1, raw - units.defense[target]));
+        int dealt = before - units.hp[target];
+        units.damageDealt[attacker] += dealt;
+        if (units.hp[target] == 0) {
+            field.clear(units.x[target], units.y[target]);
+            units.aliveBySide[units.faction[target]]--;
+        }
+        return dealt;
+    }
+
+    private static int weakestEnemy(RaidUnits units, RaidField field, int unit, int range) {
+        int best = -1;
+        int x = units.x[unit];
+        int y = units.y[unit];
+        for (int nx = Math.max(0, x - range); nx <= Math.min(field.width - 1, x + range); nx++) {
+            for (int ny = Math.max(0, y - range); ny <= Math.min(field.height - 1, y + range); ny++) {
+                int other = field.at(nx, ny);
+                if (other < 0 || units.faction[other] == units.faction[unit]) continue;
+                if (best < 0 || units.hp[other] < units.hp[best]
+                        || (units.hp[other] == units.hp[best] && other < best)) {
+                    best = other;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,85 @@
+package simulation.raid;
+
+import java.util.Arrays;
+
+/** Ведёт юнитов к ближайшему врагу по полю расстояний, построенному BFS от всех врагов. */
+final class MovementSystem {
+
+    private final int[][] distance;
+    private final int[] queue;
+
+    MovementSystem(RaidField field) {
+        int cells = field.width * field.height;
+        this.distance = new int[][]{new int[cells], new int[cells]};
+        this.queue = new int[cells];
+    }
+
+    void update(RaidUnits units, RaidField field, int[] order) {
+        buildField(units, field, 0);
+        buildField(units, field, 1);
+        for (int i : order) {
+            if (units.hp[i] <= 0) continue;
+            int[] dist = distance[units.faction[i]];
+            int reach = units.attackRange[i];
+            if (DamageSystem.techniqueReady(units, i)) reach = Math.max(reach, units.techRange[i]);
+
+            int x = units.x[i];
+            int y = units.y[i];
+            for (int step = 0; step < units.moveRange[i]; step++) {
+                int best = dist[field.index(x, y)];
+                if (best <= reach) break;
+                int bestX = -1;
+                int bestY = -1;
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        int nx = x + dx;
+                        int ny = y + dy;
+                        if (!field.inBounds(nx, ny) || field.at(nx, ny) >= 0) continue;
+                        int d = dist[field.index(nx, ny)];
+                        if (d < best) {
+                            best = d;
+                            bestX = nx;
+                            bestY = ny;
+                        }
+                    }
+                }
+                if (bestX < 0) break;
+                field.clear(x, y);
+                x = bestX;
+                y = bestY;
+                field.place(units, i, x, y);
+            }
+        }
+    }
+
+    private void buildField(RaidUnits units, RaidField field, int side) {
+        int[] dist = distance[side];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        int head = 0;
+        int tail = 0;
+        for (int j = 0; j < units.count; j++) {
+            if (units.hp[j] > 0 && units.faction[j] != side) {
+                int cell = field.index(units.x[j], units.y[j]);
+                dist[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            int cx = cell / field.height;
+            int cy = cell % field.height;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if (!field.inBounds(nx, ny)) continue;
+                    int next = field.index(nx, ny);
+                    if (dist[next] == Integer.MAX_VALUE) {
+                        dist[next] = dist[cell] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package simulation.raid;
+
+import enums.BattleState;
+import models.Combatant;
+import models.TechTree;
+import simulation.BattleResult;
+import simulation.BattleSimulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/** Массовый бой для рейдов с сотнями проклятий. */
+public class RaidBattle {
+
+    public static final int DEFAULT_SIZE = 48;
+
+    private final int width;
+    private final int height;
+    private final CooldownSystem cooldowns = new CooldownSystem();
+    private final DamageSystem damage = new DamageSystem();
+
+    public RaidBattle() {
+        this(DEFAULT_SIZE, DEFAULT_SIZE);
+    }
+
+    public RaidBattle(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public BattleResult run(List<Combatant> players, List<Combatant> enemies, TechTree techTree,
+                            int roundLimit, long seed) {
+        double bonus = techTree != null ? techTree.getDamageBonusPct() : 0.0;
+        double costMultiplier = techTree != null ? techTree.getCECostMultiplier() : 1.0;
+        RaidUnits units = new RaidUnits(players.size() + enemies.size());
+        for (Combatant c : players) {
+            if (c.isAlive()) units.add(c, Combatant.FACTION_PLAYER, bonus, costMultiplier);
+        }
+        for (Combatant c : enemies) {
+            if (c.isAlive()) units.add(c, Combatant.FACTION_ENEMY, 0.0, 1.0);
+        }
+
+        RaidField field = new RaidField(width, height);
+        deploy(units, field);
+        int[] order = initiativeOrder(units);
+        MovementSystem movement = new MovementSystem(field);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        int limit = roundLimit > 0 ? roundLimit : BattleSimulator.DEFAULT_ROUND_LIMIT;
+        int round = 0;
+        BattleState outcome;
+        while (true) {
+            if (units.countAlive(Combatant.FACTION_ENEMY) == 0) {
+                outcome = BattleState.VICTORY;
+                break;
+            }
+            if (units.countAlive(Combatant.FACTION_PLAYER) == 0 || round >= limit) {
+                outcome = BattleState.DEFEAT;
+                break;
+            }
+            round++;
+            cooldowns.update(units);
+            movement.update(units, field, order);
+            damage.update(units, field, order, random);
+        }
+
+        units.writeBack();
+        return result(units, outcome, round);
+    }
+
+    private void deploy(RaidUnits units, RaidField field) {
+        int[] placed = new int[2];
+        int[] perSide = {units.countAlive(Combatant.FACTION_PLAYER), units.countAlive(Combatant.FACTION_ENEMY)};
+        for (int side = 0; side < 2; side++) {
+            if (perSide[side] > (width / 2) * height) {
+                throw new IllegalArgumentException("Raid field " + width + "x" + height
+                        + " cannot fit " + perSide[side] + " units on one side");
+            }
+        }
+        for (int i = 0; i < units.size(); i++) {
+            int side = units.faction[i];
+            int rows = Math.min(perSide[side], height);
+            int k = placed[side]++;
+            int column = k / rows;
+            int row = (height - rows) / 2 + k % rows;
+            field.place(units, i, side == Combatant.FACTION_PLAYER ? column : width - 1 - column, row);
+        }
+    }
+
+    private static int[] initiativeOrder(RaidUnits units) {
+        long[] keys = new long[units.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) (Integer.MAX_VALUE - units.speed[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) order[i] = (int) keys[i];
+        return order;
+    }
+
+    private static BattleResult result(RaidUnits units, BattleState outcome, int rounds) {
+        Map<Combatant, Integer> damageDealt = new LinkedHashMap<>();
+        List<Combatant> playerSurvivors = new ArrayList<>();
+        List<Combatant> enemySurvivors = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            Combatant unit = units.getSource(i);
+            if (units.damageDealt[i] > 0) damageDealt.put(unit, units.damageDealt[i]);
+            if (units.isAlive(i)) {
+                (units.faction[i] == Combatant.FACTION_PLAYER ? playerSurvivors : enemySurvivors).add(unit);
+            }
+        }
+        return new BattleResult(outcome, rounds, damageDealt, playerSurvivors, enemySurvivors);
+    }
+}
@@ -0,0 +1,32 @@
+package simulation.raid;
+
+import java.util.Arrays;
+
+/** Поле рейда: номер сущности в каждой клетке, -1 — пусто. */
+final class RaidField {
+
+    final int width;
+    final int height;
+    final int[] occupant;
+
+    RaidField(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.occupant = new int[width * height];
+        Arrays.fill(occupant, -1);
+    }
+
+    int index(int x, int y)            { return x * height + y; }
+    boolean inBounds(int x, int y)     { return x >= 0 && y >= 0 && x < width && y < height; }
+    int at(int x, int y)               { return occupant[x * height + y]; }
+
+    void place(RaidUnits units, int unit, int x, int y) {
+        occupant[x * height + y] = unit;
+        units.x[unit] = x;
+        units.y[unit] = y;
+    }
+
+    void clear(int x, int y) {
+        occupant[x * height + y] = -1;
+    }
+}
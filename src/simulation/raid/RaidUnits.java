@@ -0,0 +1,151 @@
+package simulation.raid;
+
+import models.Combatant;
+import models.CursedEnergyHolder;
+import models.NamedSorcerer;
+import models.SpecialCurse;
+import simulation.AutoResolver;
+import techniques.CursedTechnique;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** Состояние рейда в виде структуры массивов; индекс — номер сущности. */
+public final class RaidUnits {
+
+    int count;
+    int[] hp;
+    int[] maxHp;
+    int[] ce;
+    int[] attack;
+    int[] defense;
+    int[] speed;
+    int[] x;
+    int[] y;
+    int[] moveRange;
+    int[] attackRange;
+    int[] blackFlashChance;
+    byte[] faction;
+
+    int[] techDamage;
+    int[] techCost;
+    int[] techCooldown;
+    int[] techRange;
+    int[] techBlackFlash;
+    int[] cooldown;
+
+    int[] damageDealt;
+    final int[] aliveBySide = new int[2];
+    private Combatant[] source;
+
+    public RaidUnits(int capacity) {
+        capacity = Math.max(1, capacity);
+        hp = new int[capacity];
+        maxHp = new int[capacity];
+        ce = new int[capacity];
+        attack = new int[capacity];
+        defense = new int[capacity];
+        speed = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        moveRange = new int[capacity];
+        attackRange = new int[capacity];
+        blackFlashChance = new int[capacity];
+        faction = new byte[capacity];
+        techDamage = new int[capacity];
+        techCost = new int[capacity];
+        techCooldown = new int[capacity];
+        techRange = new int[capacity];
+        techBlackFlash = new int[capacity];
+        cooldown = new int[capacity];
+        damageDealt = new int[capacity];
+        source = new Combatant[capacity];
+    }
+
+    public int add(Combatant unit, int side, double damageBonus, double ceCostMultiplier) {
+        if (count == hp.length) grow(count * 2);
+        int i = count++;
+        source[i] = unit;
+        hp[i] = unit.getHp();
+        maxHp[i] = unit.getMaxHp();
+        ce[i] = unit instanceof CursedEnergyHolder ? ((CursedEnergyHolder) unit).getCursedEnergy() : 0;
+        attack[i] = (int) (unit.getAttack() * (1.0 + damageBonus));
+        defense[i] = unit.getDefense();
+        speed[i] = unit.getSpeed();
+        moveRange[i] = unit.getMovementRange();
+        attackRange[i] = unit.getAttackRange();
+        blackFlashChance[i] = unit.getBasicAttackBlackFlashChance();
+        faction[i] = (byte) side;
+        x[i] = -1;
+        y[i] = -1;
+        if (hp[i] > 0) aliveBySide[side]++;
+
+        CursedTechnique best = null;
+        int bestDamage = attack[i];
+        for (CursedTechnique tech : techniques(unit)) {
+            int damage = (int) (unit.getAttack() * AutoResolver.multiplier(tech));
+            if (damage > bestDamage) {
+                bestDamage = damage;
+                best = tech;
+            }
+        }
+        if (best != null) {
+            techDamage[i] = bestDamage;
+            techCost[i] = (int) Math.ceil(best.getCursedEnergyCost() * ceCostMultiplier);
+            techCooldown[i] = best.getCooldown();
+            techRange[i] = best.getRange();
+            techBlackFlash[i] = best.canTriggerBlackFlash() ? best.getBlackFlashChance() : 0;
+        }
+        return i;
+    }
+
+    public int size()                  { return count; }
+    public boolean isAlive(int i)      { return hp[i] > 0; }
+    public int getHp(int i)            { return hp[i]; }
+    public int getFaction(int i)       { return faction[i]; }
+    public int getX(int i)             { return x[i]; }
+    public int getY(int i)             { return y[i]; }
+    public int getDamageDealt(int i)   { return damageDealt[i]; }
+    public Combatant getSource(int i)  { return source[i]; }
+
+    public int countAlive(int side)    { return aliveBySide[side]; }
+
+    public void writeBack() {
+        for (int i = 0; i < count; i++) {
+            source[i].restoreHp(hp[i]);
+            if (source[i] instanceof CursedEnergyHolder) {
+                ((CursedEnergyHolder) source[i]).setCursedEnergy(ce[i]);
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        hp = Arrays.copyOf(hp, capacity);
+        maxHp = Arrays.copyOf(maxHp, capacity);
+        ce = Arrays.copyOf(ce, capacity);
+        attack = Arrays.copyOf(attack, capacity);
+        defense = Arrays.copyOf(defense, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        moveRange = Arrays.copyOf(moveRange, capacity);
+        attackRange = Arrays.copyOf(attackRange, capacity);
+        blackFlashChance = Arrays.copyOf(blackFlashChance, capacity);
+        faction = Arrays.copyOf(faction, capacity);
+        techDamage = Arrays.copyOf(techDamage, capacity);
+        techCost = Arrays.copyOf(techCost, capacity);
+        techCooldown = Arrays.copyOf(techCooldown, capacity);
+        techRange = Arrays.copyOf(techRange, capacity);
+        techBlackFlash = Arrays.copyOf(techBlackFlash, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        damageDealt = Arrays.copyOf(damageDealt, capacity);
+        source = Arrays.copyOf(source, capacity);
+    }
+
+    private static List<CursedTechnique> techniques(Combatant unit) {
+        if (unit instanceof NamedSorcerer) return ((NamedSorcerer) unit).getTechniques();
+        if (unit instanceof SpecialCurse) return ((SpecialCurse) unit).getTechniques();
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,157 @@
+package simulation.replay;
+
+import controllers.BattleCheckpoint;
+import enums.TileType;
+import models.Terrain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Двоичный формат реплея: заголовок (сид, размер поля и его непустые клетки, режим
+ * очерёдности, лимит раундов, изученные технологии, состав команд), затем поток записей «код события +
+ * varint-поля».
+ * Юниты кодируются индексом в {@code BattleManager.getRoster()}.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC   = 0x4A4B5250; // "JKRP"
+    static final int VERSION = 4;
+
+    static final int BATTLE_STARTED = 1;
+    static final int TURN_STARTED   = 2;
+    static final int UNIT_MOVED     = 3;
+    static final int UNIT_ATTACKED  = 4;
+    static final int TECHNIQUE_USED = 5;
+    static final int UNIT_DEFENDED  = 6;
+    static final int UNIT_DEFEATED  = 7;
+    static final int BATTLE_ENDED   = 8;
+    static final int CHECKPOINT     = 9;
+
+    private ReplayFormat() {}
+
+    /** Zig-zag LEB128, so small and slightly negative values both take one byte. */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int v = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /** Size, then every non-PLAINS cell as an index delta and a {@link TileType} ordinal. */
+    static void writeTerrain(DataOutput out, Terrain terrain) throws IOException {
+        int width = terrain.getWidth();
+        int height = terrain.getHeight();
+        writeVarInt(out, width);
+        writeVarInt(out, height);
+        int count = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (terrain.getType(x, y) != TileType.PLAINS) count++;
+            }
+        }
+        writeVarInt(out, count);
+        int last = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                TileType type = terrain.getType(x, y);
+                if (type == TileType.PLAINS) continue;
+                int index = x * height + y;
+                writeVarInt(out, index - last);
+                writeVarInt(out, type.ordinal());
+                last = index;
+            }
+        }
+    }
+
+    static Terrain readTerrain(DataInput in) throws IOException {
+        int width = readVarInt(in);
+        int height = readVarInt(in);
+        Terrain terrain;
+        try {
+            terrain = new Terrain(width, height);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        int count = readVarInt(in);
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            index += readVarInt(in);
+            int ordinal = readVarInt(in);
+            if (index < 0 || index >= width * height || ordinal < 0 || ordinal >= TileType.values().length) {
+                throw new IOException("Corrupt replay terrain");
+            }
+            terrain.setType(index / height, index % height, TileType.byOrdinal(ordinal));
+        }
+        return terrain;
+    }
+
+    static void writeCheckpoint(DataOutput out, BattleCheckpoint cp) throws IOException {
+        writeVarInt(out, cp.getRound());
+        writeVarInt(out, cp.getUnitCount());
+        for (int i = 0; i < cp.getUnitCount(); i++) {
+            writeVarInt(out, cp.getHp(i));
+            writeVarInt(out, cp.getCursedEnergy(i));
+            writeVarInt(out, cp.getX(i));
+            writeVarInt(out, cp.getY(i));
+            int[] cds = cp.getCooldowns(i);
+            writeVarInt(out, cds.length);
+            for (int cd : cds) writeVarInt(out, cd);
+            writeVarInt(out, cp.getTurnOffset(i));
+            writeVarInt(out, cp.getTurnSpeed(i));
+        }
+    }
+
+    static BattleCheckpoint readCheckpoint(DataInput in) throws IOException {
+        int round = readVarInt(in);
+        int n = readVarInt(in);
+        int[] hp = new int[n];
+        int[] ce = new int[n];
+        int[] x = new int[n];
+        int[] y = new int[n];
+        int[][] cds = new int[n][];
+        int[] offsets = new int[n];
+        int[] speeds = new int[n];
+        for (int i = 0; i < n; i++) {
+            hp[i] = readVarInt(in);
+            ce[i] = readVarInt(in);
+            x[i]  = readVarInt(in);
+            y[i]  = readVarInt(in);
+            cds[i] = new int[readVarInt(in)];
+            for (int t = 0; t < cds[i].length; t++) cds[i][t] = readVarInt(in);
+            offsets[i] = readVarInt(in);
+            speeds[i]  = readVarInt(in);
+        }
+        return new BattleCheckpoint(round, hp, ce, x, y, cds, offsets, speeds);
+    }
+
+    /** Number of varint fields that follow each event code (checkpoints are variable-length). */
+    static int fieldCount(int code) {
+        switch (code) {
+            case BATTLE_STARTED: return 0;
+            case TURN_STARTED:   return 1;
+            case UNIT_MOVED:     return 5;
+            case UNIT_ATTACKED:  return 4;
+            case TECHNIQUE_USED: return 4;
+            case UNIT_DEFENDED:  return 1;
+            case UNIT_DEFEATED:  return 1;
+            case BATTLE_ENDED:   return 1;
+            default: throw new IllegalStateException("Unknown replay record " + code);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package simulation.replay;
+
+import controllers.BattleCheckpoint;
+import controllers.BattleListener;
+import controllers.BattleManager;
+import enums.BattleState;
+import enums.TurnMode;
+import models.Combatant;
+import models.CursedEnergyHolder;
+import models.SorcererTeam;
+import models.TechTree;
+import models.Technology;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Воспроизводит реплей, заново применяя записанные действия к настоящему
+ * {@link BattleManager}, и сверяет урон и исход с записью. Файл читается потоково;
+ * в памяти держится только индекс смещений контрольных точек.
+ * Команды должны иметь тот же состав, что и в записанном бою — HP и ПЭ
+ * берутся из первой контрольной точки.
+ */
+public class ReplayPlayer implements Closeable {
+
+    private final Path file;
+    private final BattleManager battle;
+    private final List<Combatant> roster;
+    private final long recordsOffset;
+    private final DamageProbe probe = new DamageProbe();
+
+    private DataInputStream in;
+    private CountingInputStream counter;
+    private boolean awaitingTurnStart;
+    private boolean finished;
+    private List<long[]> checkpointIndex;
+
+    public ReplayPlayer(Path file, SorcererTeam playerTeam, SorcererTeam enemyTeam) throws IOException {
+        this.file = file;
+        open(0);
+
+        if (in.readInt() != ReplayFormat.MAGIC) throw new IOException("Not a battle replay: " + file);
+        int version = in.readUnsignedByte();
+        if (version != ReplayFormat.VERSION) throw new IOException("Unsupported replay version " + version);
+
+        long seed = in.readLong();
+        battle = new BattleManager(seed, ReplayFormat.readTerrain(in));
+        int turnMode = in.readUnsignedByte();
+        if (turnMode >= TurnMode.values().length) throw new IOException("Unknown turn mode " + turnMode);
+        battle.setTurnMode(TurnMode.values()[turnMode]);
+        battle.setMaxRounds(ReplayFormat.readVarInt(in));
+        int techMask = ReplayFormat.readVarInt(in);
+        if (techMask != -1) {
+            Set<Technology> researched = EnumSet.noneOf(Technology.class);
+            for (Technology t : Technology.values()) {
+                if ((techMask & (1 << t.ordinal())) != 0) researched.add(t);
+            }
+            battle.setTechTree(new TechTree(researched));
+        }
+
+        // Same order as BattleManager.getRoster()
+        roster = new ArrayList<>(playerTeam.getMembers());
+        roster.addAll(enemyTeam.getMembers());
+        int playerCount = playerTeam.getMembers().size();
+        int unitCount = ReplayFormat.readVarInt(in);
+        if (unitCount != roster.size()) {
+            throw new IOException("Replay has " + unitCount + " units, teams have " + roster.size());
+        }
+        for (int i = 0; i < roster.size(); i++) {
+            Combatant unit = roster.get(i);
+            boolean player = in.readBoolean();
+            String name = in.readUTF();
+            if (player != (i < playerCount) || !name.equals(unit.getName())) {
+                throw new IOException("Replay roster mismatch: expected " + name + ", got " + unit.getName());
+            }
+        }
+        recordsOffset = counter.position;
+
+        // Nothing changes HP or CE before the first turn, so its checkpoint is the starting state
+        List<long[]> checkpoints = getCheckpointIndex();
+        if (!checkpoints.isEmpty()) {
+            BattleCheckpoint start = readCheckpointAt(checkpoints.get(0)[1]);
+            for (int i = 0; i < roster.size(); i++) {
+                Combatant unit = roster.get(i);
+                unit.restoreHp(start.getHp(i));
+                if (unit instanceof CursedEnergyHolder) {
+                    ((CursedEnergyHolder) unit).setCursedEnergy(start.getCursedEnergy(i));
+                }
+            }
+        }
+
+        battle.addListener(probe);
+        battle.initBattle(playerTeam, enemyTeam);
+    }
+
+    public BattleManager getBattleManager() { return battle; }
+    public long getSeed()                   { return battle.getSeed(); }
+    public boolean isFinished()             { return finished; }
+
+    /** Applies the next recorded event; returns false once the replay is exhausted. */
+    public boolean step() throws IOException {
+        if (finished) return false;
+        int code;
+        try {
+            code = in.readUnsignedByte();
+        } catch (EOFException e) {
+            finished = true;
+            return false;
+        }
+
+        if (code == ReplayFormat.CHECKPOINT) {
+            verifyCheckpoint(ReplayFormat.readCheckpoint(in));
+            return true;
+        }
+
+        int[] f = new int[ReplayFormat.fieldCount(code)];
+        for (int i = 0; i < f.length; i++) f[i] = ReplayFormat.readVarInt(in);
+
+        switch (code) {
+            case ReplayFormat.BATTLE_STARTED:
+                battle.startBattle();
+                awaitingTurnStart = true;
+                break;
+            case ReplayFormat.TURN_STARTED:
+                if (!awaitingTurnStart) battle.endTurn();
+                awaitingTurnStart = false;
+                check(battle.getCurrentUnit() == roster.get(f[0]), "turn of " + roster.get(f[0]).getName());
+                break;
+            case ReplayFormat.UNIT_MOVED:
+                check(battle.moveUnit(Position.of(f[3], f[4])), "move to (" + f[3] + ", " + f[4] + ")");
+                break;
+            case ReplayFormat.UNIT_ATTACKED:
+                battle.basicAttack(roster.get(f[1]));
+                check(probe.lastDamage == f[2], "attack damage " + f[2]);
+                break;
+            case ReplayFormat.TECHNIQUE_USED:
+                replayTechnique(roster.get(f[0]), roster.get(f[1]), f[2], f[3]);
+                break;
+            case ReplayFormat.UNIT_DEFENDED:
+                battle.defend();
+                break;
+            case ReplayFormat.UNIT_DEFEATED:
+                check(!roster.get(f[0]).isAlive(), "defeat of " + roster.get(f[0]).getName());
+                break;
+            case ReplayFormat.BATTLE_ENDED:
+                if (battle.getState() != BattleState.VICTORY && battle.getState() != BattleState.DEFEAT) {
+                    battle.endTurn();
+                }
+                check(battle.getState() == BattleState.values()[f[0]], "result " + BattleState.values()[f[0]]);
+                finished = true;
+                break;
+        }
+        return true;
+    }
+
+    public void playToEnd() throws IOException {
+        while (step()) { }
+    }
+
+    /**
+     * Positions the battle at the start of {@code round}: restores the nearest
+     * checkpoint at or before it and re-simulates the remaining turns.
+     */
+    public void seekToRound(int round) throws IOException {
+        long[] best = null;
+        for (long[] cp : getCheckpointIndex()) {
+            if (cp[0] <= round && (best == null || cp[0] > best[0])) best = cp;
+        }
+        if (best == null) throw new IllegalArgumentException("No checkpoint at or before round " + round);
+
+        open(best[1]);
+        in.readUnsignedByte();
+        battle.restoreCheckpoint(ReplayFormat.readCheckpoint(in));
+        awaitingTurnStart = false;
+        finished = false;
+        while (battle.getRoundNumber() < round && step()) { }
+    }
+
+    /** Scans the file once and remembers (round, byte offset) for every checkpoint. */
+    private List<long[]> getCheckpointIndex() throws IOException {
+        if (checkpointIndex != null) return checkpointIndex;
+        List<long[]> index = new ArrayList<>();
+        FileInputStream raw = new FileInputStream(file.toFile());
+        raw.getChannel().position(recordsOffset);
+        CountingInputStream pos = new CountingInputStream(new BufferedInputStream(raw), recordsOffset);
+        try (DataInputStream scan = new DataInputStream(pos)) {
+            while (true) {
+                long offset = pos.position;
+                int code;
+                try {
+                    code = scan.readUnsignedByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (code == ReplayFormat.CHECKPOINT) {
+                    index.add(new long[]{ReplayFormat.readCheckpoint(scan).getRound(), offset});
+                } else {
+                    for (int i = ReplayFormat.fieldCount(code); i > 0; i--) ReplayFormat.readVarInt(scan);
+                }
+            }
+        }
+        checkpointIndex = index;
+        return index;
+    }
+
+    private BattleCheckpoint readCheckpointAt(long offset) throws IOException {
+        FileInputStream raw = new FileInputStream(file.toFile());
+        raw.getChannel().position(offset);
+        try (DataInputStream cp = new DataInputStream(new BufferedInputStream(raw))) {
+            cp.readUnsignedByte();
+            return ReplayFormat.readCheckpoint(cp);
+        }
+    }
+
+    private void replayTechnique(Combatant user, Combatant target, int techIndex, int damage) {
+        List<CursedTechnique> techs = battle.getAllTechniquesForUnit(user);
+        check(techIndex >= 0 && techIndex < techs.size(), "technique #" + techIndex);
+        CursedTechnique tech = techs.get(techIndex);
+        check(battle.useTechnique(tech, target), tech.getName());
+        check(probe.lastDamage == damage, tech.getName() + " damage " + damage);
+    }
+
+    private void verifyCheckpoint(BattleCheckpoint expected) {
+        BattleCheckpoint actual = battle.captureCheckpoint();
+        check(actual.getRound() == expected.getRound(), "round " + expected.getRound());
+        for (int i = 0; i < expected.getUnitCount(); i++) {
+            check(actual.getHp(i) == expected.getHp(i), roster.get(i).getName() + " HP " + expected.getHp(i));
+            check(actual.getCursedEnergy(i) == expected.getCursedEnergy(i),
+                    roster.get(i).getName() + " CE " + expected.getCursedEnergy(i));
+            check(actual.getTurnOffset(i) == expected.getTurnOffset(i),
+                    roster.get(i).getName() + " next turn at " + expected.getTurnOffset(i));
+        }
+    }
+
+    private void check(boolean condition, String expected) {
+        if (!condition) {
+            throw new IllegalStateException("Replay out of sync in round "
+                    + battle.getRoundNumber() + ": expected " + expected);
+        }
+    }
+
+    private void open(long offset) throws IOException {
+        if (in != null) in.close();
+        FileInputStream raw = new FileInputStream(file.toFile());
+        raw.getChannel().position(offset);
+        counter = new CountingInputStream(new BufferedInputStream(raw), offset);
+        in = new DataInputStream(counter);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+
+    /** Captures the damage the battle reports, which includes Black Flash bonuses and overkill. */
+    private static class DamageProbe implements BattleListener {
+        int lastDamage;
+
+        @Override public void onBattleStarted() {}
+        @Override public void onTurnStarted(Combatant unit) {}
+        @Override public void onUnitMoved(Combatant unit, Position from, Position to) {}
+
+        @Override
+        public void onUnitAttacked(Combatant attacker, Combatant target, int damage, boolean blackFlash) {
+            lastDamage = damage;
+        }
+
+        @Override
+        public void onTechniqueUsed(Combatant user, Combatant target, String techniqueName,
+                                    int damage, String animationType, Position targetPos) {
+            lastDamage = damage;
+        }
+
+        @Override public void onUnitDefended(Combatant unit) {}
+        @Override public void onUnitDefeated(Combatant unit) {}
+        @Override public void onBattleEnded(BattleState result) {}
+        @Override public void onMessage(String message) {}
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long position;
+
+        CountingInputStream(InputStream in, long position) {
+            super(in);
+            this.position = position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package simulation.replay;
+
+import controllers.BattleListener;
+import controllers.BattleManager;
+import enums.BattleState;
+import models.Combatant;
+import models.TechTree;
+import models.Technology;
+import techniques.CursedTechnique;
+import utils.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пишет все события боя и сид в компактный двоичный реплей (только дозапись).
+ * Создаётся после {@code initBattle()} и до {@code startBattle()}; в начале каждого
+ * N-го раунда добавляет контрольную точку, с которой {@link ReplayPlayer} умеет перематывать.
+ */
+public class ReplayRecorder implements BattleListener, Closeable {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 5;
+
+    private final BattleManager battle;
+    private final DataOutputStream out;
+    private final int checkpointInterval;
+    private final Map<Combatant, Integer> unitIndex = new IdentityHashMap<>();
+    private int lastRound;
+
+    public ReplayRecorder(BattleManager battle, OutputStream out) throws IOException {
+        this(battle, out, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public ReplayRecorder(BattleManager battle, OutputStream out, int checkpointInterval) throws IOException {
+        this.battle = battle;
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+
+        List<Combatant> roster = battle.getRoster();
+        for (int i = 0; i < roster.size(); i++) unitIndex.put(roster.get(i), i);
+        writeHeader(roster);
+        battle.addListener(this);
+    }
+
+    private void writeHeader(List<Combatant> roster) throws IOException {
+        out.writeInt(ReplayFormat.MAGIC);
+        out.writeByte(ReplayFormat.VERSION);
+        out.writeLong(battle.getSeed());
+        ReplayFormat.writeTerrain(out, battle.getTerrain());
+        out.writeByte(battle.getTurnMode().ordinal());
+        ReplayFormat.writeVarInt(out, battle.getMaxRounds());
+
+        TechTree techTree = battle.getTechTree();
+        int techMask = -1;
+        if (techTree != null) {
+            techMask = 0;
+            for (Technology t : techTree.getResearched()) techMask |= 1 << t.ordinal();
+        }
+        ReplayFormat.writeVarInt(out, techMask);
+
+        ReplayFormat.writeVarInt(out, roster.size());
+        for (Combatant unit : roster) {
+            out.writeBoolean(battle.isPlayerUnit(unit));
+            out.writeUTF(unit.getName());
+        }
+    }
+
+    @Override
+    public void onBattleStarted() {
+        record(ReplayFormat.BATTLE_STARTED);
+    }
+
+    @Override
+    public void onTurnStarted(Combatant unit) {
+        record(ReplayFormat.TURN_STARTED, index(unit));
+        int round = battle.getRoundNumber();
+        if (round != lastRound) {
+            lastRound = round;
+            if ((round - 1) % checkpointInterval == 0) {
+                try {
+                    out.writeByte(ReplayFormat.CHECKPOINT);
+                    ReplayFormat.writeCheckpoint(out, battle.captureCheckpoint());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onUnitMoved(Combatant unit, Position from, Position to) {
+        record(ReplayFormat.UNIT_MOVED, index(unit), from.getX(), from.getY(), to.getX(), to.getY());
+    }
+
+    @Override
+    public void onUnitAttacked(Combatant attacker, Combatant target, int damage, boolean blackFlash) {
+        record(ReplayFormat.UNIT_ATTACKED, index(attacker), index(target), damage, blackFlash ? 1 : 0);
+    }
+
+    @Override
+    public void onTechniqueUsed(Combatant user, Combatant target, String techniqueName,
+                                int damage, String animationType, Position targetPos) {
+        List<CursedTechnique> techs = battle.getAllTechniquesForUnit(user);
+        int techIndex = -1;
+        for (int i = 0; i < techs.size(); i++) {
+            if (techs.get(i).getName().equals(techniqueName)) { techIndex = i; break; }
+        }
+        record(ReplayFormat.TECHNIQUE_USED, index(user), index(target), techIndex, damage);
+    }
+
+    @Override
+    public void onUnitDefended(Combatant unit) {
+        record(ReplayFormat.UNIT_DEFENDED, index(unit));
+    }
+
+    @Override
+    public void onUnitDefeated(Combatant unit) {
+        record(ReplayFormat.UNIT_DEFEATED, index(unit));
+    }
+
+    @Override
+    public void onBattleEnded(BattleState result) {
+        record(ReplayFormat.BATTLE_ENDED, result.ordinal());
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onMessage(String message) {}
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private int index(Combatant unit) {
+        return unitIndex.get(unit);
+    }
+
+    private void record(int code, int... fields) {
+        try {
+            out.writeByte(code);
+            for (int f : fields) ReplayFormat.writeVarInt(out, f);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -5,13 +5,21 @@ import enums.GameEventType;
 import models.*;
 
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 
 public class EventSystem {
 
     private static final double BASE_EVENT_CHANCE = 0.35;
-    private final Random rng = new Random();
+    private final SplittableRandom rng;
+
+    public EventSystem() {
+        this(new SplittableRandom());
+    }
+
+    public EventSystem(SplittableRandom rng) {
+        this.rng = rng;
+    }
 
     public GameEvent rollEvent(List<District> allDistricts,
                                List<District> controlledDistricts,
@@ -0,0 +1,52 @@
+package systems;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Единый источник случайности кампании. Из сида кампании выводятся независимые
+ * именованные потоки: одинаковый сид даёт побитово одинаковые броски в каждом потоке,
+ * независимо от того, сколько чисел взято из других.
+ * Потоки не потокобезопасны — параллельные симуляции берут свои через {@link #deriveSeed}.
+ */
+public class RandomService {
+
+    public enum Stream {
+        /** Crits and Black Flash rolls in battle. */
+        COMBAT,
+        /** Random campaign events from EventSystem. */
+        EVENTS,
+        /** Curse respawn rolls in controlled districts. */
+        SPAWN
+    }
+
+    private final long seed;
+    private final Map<Stream, SplittableRandom> streams = new EnumMap<>(Stream.class);
+
+    public RandomService(long seed) {
+        this.seed = seed;
+        for (Stream s : Stream.values()) {
+            streams.put(s, new SplittableRandom(deriveSeed(seed, s.name().hashCode())));
+        }
+    }
+
+    public SplittableRandom stream(Stream stream) {
+        return streams.get(stream);
+    }
+
+    /** Seed for the next tactical battle, drawn from the combat stream. */
+    public long nextBattleSeed() {
+        return streams.get(Stream.COMBAT).nextLong();
+    }
+
+    public long getSeed() { return seed; }
+
+    /** SplitMix64 mix of a base seed and a salt (stream id, battle index, round...). */
+    public static long deriveSeed(long seed, long salt) {
+        long z = seed + (salt + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -20,5 +20,8 @@ public interface CursedTechnique {
 
     default int getBlackFlashChance() { return 0; }
 
+    /** Stable per-class ID from {@link TechniqueRegistry}. */
+    default int getId() { return TechniqueRegistry.idOf(this); }
+
     void execute(Combatant user, Combatant target);
 }
@@ -0,0 +1,53 @@
+package techniques;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Стабильные целые ID техник по их классу. Известные техники пронумерованы заранее,
+ * так что ID не зависят от порядка создания юнитов; новые классы получают следующий
+ * свободный номер при первом обращении.
+ */
+public final class TechniqueRegistry {
+
+    private static final List<Class<? extends CursedTechnique>> KNOWN = Arrays.asList(
+            BlackFlash.class, BloodEdge.class, CleaveSlash.class, CoreSwitch.class,
+            CursedSpeechTechnique.class, DisasterPlantsTechnique.class, DivergentFist.class,
+            DivineDogs.class, FlamesArrow.class, GorillaMode.class, HairpinTechnique.class,
+            IdleTransfigurationTechnique.class, InfiniteVoidTechnique.class, InfinityBarrier.class,
+            NueStrike.class, PhysicalStrike.class, PiercingBlood.class, ResonanceTechnique.class,
+            SpearThrust.class, StopTechnique.class, VolcanicAttackTechnique.class);
+
+    private static final Map<Class<?>, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<Class<?>> CLASSES = new ArrayList<>();
+    private static volatile int size;
+
+    static {
+        for (Class<?> c : KNOWN) register(c);
+    }
+
+    private TechniqueRegistry() {}
+
+    public static int idOf(CursedTechnique tech) {
+        Integer id = IDS.get(tech.getClass());
+        return id != null ? id : register(tech.getClass());
+    }
+
+    /** Number of IDs handed out so far; every ID is below it. */
+    public static int size() {
+        return size;
+    }
+
+    private static synchronized int register(Class<?> c) {
+        Integer existing = IDS.get(c);
+        if (existing != null) return existing;
+        int id = CLASSES.size();
+        CLASSES.add(c);
+        IDS.put(c, id);
+        size = CLASSES.size();
+        return id;
+    }
+}
@@ -0,0 +1,175 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Битовая маска клеток поля (bitboard). Клетка (x, y) хранится в бите
+ * {@code x * height + y}; поле 10x10 занимает два long.
+ * Операции изменяют маску на месте и ничего не выделяют, поэтому одна маска
+ * не должна использоваться из нескольких потоков.
+ */
+public class GridMask {
+
+    private final int width;
+    private final int height;
+    private final long[] words;
+    private final long[] scratch;
+    private final long[] notFirstRow;
+    private final long[] notLastRow;
+
+    public GridMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int n = (width * height + 63) >>> 6;
+        this.words = new long[n];
+        this.scratch = new long[n];
+        this.notFirstRow = new long[n];
+        this.notLastRow = new long[n];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int i = x * height + y;
+                if (y != 0)          notFirstRow[i >>> 6] |= 1L << i;
+                if (y != height - 1) notLastRow[i >>> 6]  |= 1L << i;
+            }
+        }
+    }
+
+    public int getWidth()  { return width; }
+    public int getHeight() { return height; }
+
+    public int index(int x, int y) { return x * height + y; }
+    public int xOf(int index)      { return index / height; }
+    public int yOf(int index)      { return index % height; }
+
+    public boolean get(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        int i = index(x, y);
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public void set(int x, int y) {
+        int i = index(x, y);
+        words[i >>> 6] |= 1L << i;
+    }
+
+    public void clear(int x, int y) {
+        int i = index(x, y);
+        words[i >>> 6] &= ~(1L << i);
+    }
+
+    public void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+    public void setAll() {
+        for (int x = 0; x < width; x++) setColumnRange(x, 0, height - 1);
+    }
+
+    public void copyFrom(GridMask other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    public void and(GridMask other) {
+        for (int i = 0; i < words.length; i++) words[i] &= other.words[i];
+    }
+
+    public void or(GridMask other) {
+        for (int i = 0; i < words.length; i++) words[i] |= other.words[i];
+    }
+
+    public void andNot(GridMask other) {
+        for (int i = 0; i < words.length; i++) words[i] &= ~other.words[i];
+    }
+
+    public boolean isEmpty() {
+        for (long w : words) if (w != 0) return false;
+        return true;
+    }
+
+    public int cardinality() {
+        int c = 0;
+        for (long w : words) c += Long.bitCount(w);
+        return c;
+    }
+
+    /** Index of the first set bit at or after {@code from}, or -1. */
+    public int nextSetBit(int from) {
+        int wi = from >>> 6;
+        if (wi >= words.length) return -1;
+        long w = words[wi] & (-1L << from);
+        while (true) {
+            if (w != 0) return (wi << 6) + Long.numberOfTrailingZeros(w);
+            if (++wi == words.length) return -1;
+            w = words[wi];
+        }
+    }
+
+    /** Replaces the mask with the part of {@code source} whose (0, 0) is at ({@code x0}, {@code y0}). */
+    public void copyWindow(GridMask source, int x0, int y0) {
+        clearAll();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (source.get(x0 + x, y0 + y)) set(x, y);
+            }
+        }
+    }
+
+    /** Replaces the mask with the square of Chebyshev radius {@code range} around (cx, cy), clipped to the grid. */
+    public void setChebyshevRange(int cx, int cy, int range) {
+        clearAll();
+        int y0 = Math.max(0, cy - range);
+        int y1 = Math.min(height - 1, cy + range);
+        for (int x = Math.max(0, cx - range); x <= Math.min(width - 1, cx + range); x++) {
+            setColumnRange(x, y0, y1);
+        }
+    }
+
+    /** Grows the mask by one step in all eight directions (Chebyshev distance 1). */
+    public void dilate() {
+        int n = words.length;
+        // y +- 1, masked so bits don't wrap between columns
+        for (int i = 0; i < n; i++) {
+            long up   = (words[i] << 1) | (i > 0 ? words[i - 1] >>> 63 : 0);
+            long down = (words[i] >>> 1) | (i + 1 < n ? words[i + 1] << 63 : 0);
+            scratch[i] = words[i] | (up & notFirstRow[i]) | (down & notLastRow[i]);
+        }
+        // x +- 1 is a shift by a whole column
+        System.arraycopy(scratch, 0, words, 0, n);
+        orShifted(scratch, height);
+        orShifted(scratch, -height);
+        clipToGrid();
+    }
+
+    private void orShifted(long[] src, int shift) {
+        int n = src.length;
+        int wordShift = Math.abs(shift) >>> 6;
+        int bitShift = Math.abs(shift) & 63;
+        for (int i = 0; i < n; i++) {
+            long v;
+            if (shift > 0) {
+                int s = i - wordShift;
+                long lo = s >= 0 ? src[s] : 0;
+                long carry = (bitShift != 0 && s - 1 >= 0) ? src[s - 1] >>> (64 - bitShift) : 0;
+                v = (lo << bitShift) | carry;
+            } else {
+                int s = i + wordShift;
+                long hi = s < n ? src[s] : 0;
+                long carry = (bitShift != 0 && s + 1 < n) ? src[s + 1] << (64 - bitShift) : 0;
+                v = (hi >>> bitShift) | carry;
+            }
+            words[i] |= v;
+        }
+    }
+
+    private void clipToGrid() {
+        int bits = width * height;
+        int last = words.length - 1;
+        if ((bits & 63) != 0) words[last] &= (1L << (bits & 63)) - 1;
+    }
+
+    private void setColumnRange(int x, int y0, int y1) {
+        for (int i = index(x, y0); i <= index(x, y1); i++) {
+            words[i >>> 6] |= 1L << i;
+        }
+    }
+}
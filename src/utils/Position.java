@@ -2,10 +2,31 @@ package utils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 public class Position {
 
+    /** Number of neighbours in the 8-connected neighbourhood. */
+    public static final int NEIGHBOR_COUNT = 8;
+    private static final int[] NEIGHBOR_DX = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] NEIGHBOR_DY = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    /**
+     * Positions with both coordinates in {@code [0, CACHE_SIZE)} are interned by {@link #of},
+     * which covers the largest battle grid. The first 64x64 are created up front, the rest
+     * on first use; a race there only creates an equal duplicate.
+     */
+    public static final int CACHE_SIZE = 512;
+    private static final int PRELOADED = 64;
+    private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int x = 0; x < PRELOADED; x++) {
+            for (int y = 0; y < PRELOADED; y++) {
+                CACHE[x * CACHE_SIZE + y] = new Position(x, y);
+            }
+        }
+    }
+
     private final int x;
     private final int y;
 
@@ -14,6 +35,20 @@ public class Position {
         this.y = y;
     }
 
+    /** Shared instance for grid coordinates; allocates only outside the cached range. */
+    public static Position of(int x, int y) {
+        if (x >= 0 && x < CACHE_SIZE && y >= 0 && y < CACHE_SIZE) {
+            int i = x * CACHE_SIZE + y;
+            Position p = CACHE[i];
+            if (p == null) CACHE[i] = p = new Position(x, y);
+            return p;
+        }
+        return new Position(x, y);
+    }
+
+    public static int neighborDx(int i) { return NEIGHBOR_DX[i]; }
+    public static int neighborDy(int i) { return NEIGHBOR_DY[i]; }
+
     public int getX() { return x; }
     public int getY() { return y; }
 
@@ -21,14 +56,15 @@ public class Position {
         return Math.max(Math.abs(x - other.x), Math.abs(y - other.y));
     }
 
+    /** The i-th of the {@link #NEIGHBOR_COUNT} neighbours, in the same order as {@link #getNeighbors()}. */
+    public Position getNeighbor(int i) {
+        return of(x + NEIGHBOR_DX[i], y + NEIGHBOR_DY[i]);
+    }
 
     public List<Position> getNeighbors() {
-        List<Position> neighbors = new ArrayList<>(8);
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue;
-                neighbors.add(new Position(x + dx, y + dy));
-            }
+        List<Position> neighbors = new ArrayList<>(NEIGHBOR_COUNT);
+        for (int i = 0; i < NEIGHBOR_COUNT; i++) {
+            neighbors.add(getNeighbor(i));
         }
         return neighbors;
     }
@@ -43,7 +79,7 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
     @Override
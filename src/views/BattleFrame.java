@@ -1,25 +1,38 @@
 package views;
 
 import controllers.AIController;
+import controllers.AIStrategy;
+import controllers.AITurnPipeline;
+import controllers.BattleCommand;
 import controllers.BattleListener;
 import controllers.BattleManager;
 import enums.BattleState;
+import enums.TurnMode;
 import models.*;
 import models.Mission;
 import models.TechTree;
+import simulation.replay.ReplayRecorder;
 import techniques.CursedTechnique;
 import utils.Position;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 public class BattleFrame extends JFrame implements BattleListener {
 
     private final BattleManager battleManager;
-    private final AIController aiController;
+    private final AITurnPipeline aiPipeline;
+    private ReplayRecorder replayRecorder;
 
     private BattleGridPanel gridPanel;
     private UnitInfoPanel unitInfoPanel;
@@ -30,6 +43,18 @@ public class BattleFrame extends JFrame implements BattleListener {
 
     private boolean waitingForAnimation = false;
 
+    private static final int AI_TURN_DELAY_MS = 600;
+    private static final int COMMAND_DELAY_MS = 300;
+    private static final int END_TURN_DELAY_MS = 300;
+    private static final int AI_POLL_MS = 30;
+    private static final int[] SPEED_MULTIPLIERS = {1, 2, 4, 8};
+
+    private boolean autoBattle = false;
+    private int speedMultiplier = 1;
+    private boolean skipAnimations = false;
+    private int lastPaintedRound = -1;
+    private boolean aiTurnPending = false;
+
     private Consumer<BattleState> battleEndCallback;
 
     private Mission currentMission;
@@ -44,24 +69,71 @@ public class BattleFrame extends JFrame implements BattleListener {
 
     public BattleFrame(SorcererTeam playerTeam, SorcererTeam enemyTeam,
                        TechTree techTree, Mission mission) {
+        this(playerTeam, enemyTeam, techTree, mission, System.nanoTime());
+    }
+
+    public BattleFrame(SorcererTeam playerTeam, SorcererTeam enemyTeam,
+                       TechTree techTree, Mission mission, long seed) {
+        this(playerTeam, enemyTeam, techTree, mission, seed, null, TurnMode.ROUNDS);
+    }
+
+    /** {@code terrain} sets the battle grid; null means the default 10x10 field. */
+    public BattleFrame(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree,
+                       Mission mission, long seed, Terrain terrain, TurnMode turnMode) {
+        this(playerTeam, enemyTeam, techTree, mission, seed, terrain, turnMode, null);
+    }
+
+    /** If {@code replayFile} is set, the battle is recorded there for {@code ReplayPlayer}. */
+    public BattleFrame(SorcererTeam playerTeam, SorcererTeam enemyTeam, TechTree techTree,
+                       Mission mission, long seed, Terrain terrain, TurnMode turnMode, Path replayFile) {
         super("Jujutsu Kaisen — Тактический бой");
 
         this.currentMission = mission;
 
-        battleManager = new BattleManager();
+        battleManager = terrain != null ? new BattleManager(seed, terrain) : new BattleManager(seed);
         if (techTree != null) battleManager.setTechTree(techTree);
+        battleManager.setTurnMode(turnMode);
         if (mission != null && mission.hasTurnLimit()) {
             battleManager.setMaxRounds(mission.getTurnLimit());
         }
-        aiController = new AIController(battleManager);
+        aiPipeline = new AITurnPipeline(null, new AIController());
         battleManager.addListener(this);
 
         initUI();
 
         battleManager.initBattle(playerTeam, enemyTeam);
+        if (replayFile != null) startRecording(replayFile);
         battleManager.startBattle();
     }
 
+    private void startRecording(Path replayFile) {
+        try {
+            if (replayFile.getParent() != null) Files.createDirectories(replayFile.getParent());
+            replayRecorder = new ReplayRecorder(battleManager, Files.newOutputStream(replayFile));
+            log("Реплей боя: " + replayFile);
+        } catch (IOException e) {
+            log("Не удалось записать реплей: " + e.getMessage());
+        }
+    }
+
+    /** Replaces the enemy AI, e.g. with a search-based one for harder districts. */
+    public void setEnemyAI(AIStrategy enemyAI) {
+        aiPipeline.setEnemyAI(enemyAI);
+    }
+
+    @Override
+    public void dispose() {
+        aiPipeline.shutdown();
+        if (replayRecorder != null) {
+            try {
+                replayRecorder.close();
+            } catch (IOException ignored) {
+            }
+            replayRecorder = null;
+        }
+        super.dispose();
+    }
+
     public void setBattleEndCallback(Consumer<BattleState> callback) {
         this.battleEndCallback = callback;
     }
@@ -83,6 +155,7 @@ public class BattleFrame extends JFrame implements BattleListener {
 
         turnOrderPanel = new TurnOrderPanel();
         topPanel.add(turnOrderPanel, BorderLayout.CENTER);
+        topPanel.add(createSpeedControls(), BorderLayout.EAST);
         add(topPanel, BorderLayout.NORTH);
 
         gridPanel = new BattleGridPanel(battleManager, this);
@@ -90,7 +163,7 @@ public class BattleFrame extends JFrame implements BattleListener {
 
         JPanel centerPanel = new JPanel(new BorderLayout(4, 0));
         centerPanel.setBackground(new Color(50, 48, 45));
-        centerPanel.add(gridPanel, BorderLayout.CENTER);
+        centerPanel.add(createGridScroll(), BorderLayout.CENTER);
         centerPanel.add(unitInfoPanel, BorderLayout.EAST);
         add(centerPanel, BorderLayout.CENTER);
 
@@ -119,6 +192,92 @@ public class BattleFrame extends JFrame implements BattleListener {
         setLocationRelativeTo(null);
     }
 
+    /** Grids larger than the viewport scroll; the view follows the acting unit. */
+    private JScrollPane createGridScroll() {
+        JScrollPane scroll = new JScrollPane(gridPanel);
+        scroll.setBorder(BorderFactory.createEmptyBorder());
+        scroll.getVerticalScrollBar().setUnitIncrement(BattleGridPanel.TILE_SIZE / 2);
+        scroll.getHorizontalScrollBar().setUnitIncrement(BattleGridPanel.TILE_SIZE / 2);
+        int tiles = BattleManager.DEFAULT_GRID_SIZE;
+        scroll.getViewport().setPreferredSize(new Dimension(
+                Math.min(battleManager.getWidth(), tiles) * BattleGridPanel.TILE_SIZE,
+                Math.min(battleManager.getHeight(), tiles) * BattleGridPanel.TILE_SIZE));
+        return scroll;
+    }
+
+    private void scrollToUnit(Combatant unit) {
+        Position pos = battleManager.getUnitPosition(unit);
+        if (pos == null) return;
+        int size = BattleGridPanel.TILE_SIZE;
+        gridPanel.scrollRectToVisible(new Rectangle(
+                (pos.getX() - 1) * size, (pos.getY() - 1) * size, 3 * size, 3 * size));
+    }
+
+    private JPanel createSpeedControls() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 3));
+        panel.setBackground(new Color(60, 58, 55));
+
+        JToggleButton auto = new JToggleButton("Автобой");
+        auto.setFont(new Font("Arial", Font.BOLD, 11));
+        auto.setFocusPainted(false);
+        auto.setToolTipText("Отдать ход союзников ИИ");
+        auto.addActionListener(e -> setAutoBattle(auto.isSelected()));
+        panel.add(auto);
+
+        String[] labels = new String[SPEED_MULTIPLIERS.length];
+        for (int i = 0; i < labels.length; i++) labels[i] = "x" + SPEED_MULTIPLIERS[i];
+        JComboBox<String> speed = new JComboBox<>(labels);
+        speed.setFont(new Font("Arial", Font.PLAIN, 11));
+        speed.setToolTipText("Ускорение задержек и анимаций");
+        speed.addActionListener(e -> {
+            speedMultiplier = SPEED_MULTIPLIERS[speed.getSelectedIndex()];
+            gridPanel.setSpeedMultiplier(speedMultiplier);
+        });
+        panel.add(speed);
+
+        JCheckBox skip = new JCheckBox("Без анимаций");
+        skip.setFont(new Font("Arial", Font.PLAIN, 11));
+        skip.setForeground(Color.WHITE);
+        skip.setOpaque(false);
+        skip.setFocusPainted(false);
+        skip.setToolTipText("Без анимаций; ходы ИИ перерисовываются только в начале раунда");
+        skip.addActionListener(e -> {
+            skipAnimations = skip.isSelected();
+            gridPanel.setAnimationsEnabled(!skipAnimations);
+            gridPanel.repaint();
+        });
+        panel.add(skip);
+        return panel;
+    }
+
+    /** Hands the player's team to the greedy AI, taking over the current turn if it is ours. */
+    private void setAutoBattle(boolean enabled) {
+        autoBattle = enabled;
+        aiPipeline.setPlayerAI(enabled ? new AIController() : null);
+        Combatant current = battleManager.getCurrentUnit();
+        if (enabled && battleManager.getState() == BattleState.PLAYER_TURN
+                && current != null && !waitingForAnimation) {
+            gridPanel.clearHighlights();
+            processAITurn();
+        } else {
+            updateActionButtons();
+        }
+    }
+
+    /** Base delay scaled by turbo; zero when animations are skipped. */
+    private int delay(int baseMs) {
+        return skipAnimations ? 0 : baseMs / speedMultiplier;
+    }
+
+    private void repaintGrid() {
+        if (!skipAnimations || !isAITurn()) gridPanel.repaint();
+    }
+
+    private boolean isAITurn() {
+        Combatant current = battleManager.getCurrentUnit();
+        return current != null && aiPipeline.controls(battleManager, current);
+    }
+
     public void onMoveClicked()    { gridPanel.showMovementRange(); }
     public void onAttackClicked()  { gridPanel.showAttackRange(); }
 
@@ -174,13 +333,14 @@ public class BattleFrame extends JFrame implements BattleListener {
         if (waitingForAnimation) return;
 
         updateActionButtons();
-        gridPanel.repaint();
+        repaintGrid();
 
         Combatant current = battleManager.getCurrentUnit();
         if (current != null) unitInfoPanel.showUnit(current);
 
-        if (battleManager.isCurrentUnitMoved() && battleManager.isCurrentUnitActed()) {
-            Timer timer = new Timer(300, e -> {
+        if (current != null && !aiPipeline.controls(battleManager, current)
+                && battleManager.isCurrentUnitMoved() && battleManager.isCurrentUnitActed()) {
+            Timer timer = new Timer(delay(END_TURN_DELAY_MS), e -> {
                 if (battleManager.getState() != BattleState.VICTORY
                         && battleManager.getState() != BattleState.DEFEAT) {
                     battleManager.endTurn();
@@ -195,7 +355,7 @@ public class BattleFrame extends JFrame implements BattleListener {
 
     private void updateActionButtons() {
         Combatant current = battleManager.getCurrentUnit();
-        if (current == null || !battleManager.isPlayerUnit(current)) {
+        if (current == null || !battleManager.isPlayerUnit(current) || autoBattle) {
             actionPanel.disableAll();
             return;
         }
@@ -211,18 +371,78 @@ public class BattleFrame extends JFrame implements BattleListener {
         actionPanel.updateButtons(canMove, canAct, hasTech, techLabel);
     }
 
-    private void processEnemyTurn() {
+    /**
+     * The AI thinks on a background thread; the EDT only polls for the finished
+     * turn and then plays its commands one by one.
+     */
+    private void processAITurn() {
         actionPanel.disableAll();
-        Timer timer = new Timer(600, e -> {
-            if (battleManager.getState() == BattleState.VICTORY
-                    || battleManager.getState() == BattleState.DEFEAT) return;
-            aiController.executeTurn();
-            gridPanel.repaint();
+        if (aiTurnPending) return;
+        aiTurnPending = true;
+        Timer delay = new Timer(delay(AI_TURN_DELAY_MS), e -> {
+            if (isBattleOver() || !isAITurn()) {
+                aiTurnPending = false;
+                if (!isBattleOver()) updateActionButtons();
+                return;
+            }
+            Future<List<BattleCommand>> turn = aiPipeline.request(battleManager);
+            Timer poll = new Timer(AI_POLL_MS, null);
+            poll.addActionListener(p -> {
+                if (!turn.isDone()) return;
+                poll.stop();
+                if (isBattleOver()) return;
+                if (turn.isCancelled()) {
+                    // The strategy changed under a precomputed turn; plan again
+                    aiTurnPending = false;
+                    if (isAITurn()) processAITurn();
+                    else updateActionButtons();
+                    return;
+                }
+                try {
+                    runCommands(new ArrayDeque<>(turn.get()));
+                } catch (InterruptedException | ExecutionException ex) {
+                    log("Ошибка ИИ: " + ex.getMessage());
+                    aiTurnPending = false;
+                    battleManager.endTurn();
+                }
+            });
+            poll.setInitialDelay(0);
+            poll.start();
         });
+        delay.setRepeats(false);
+        delay.start();
+    }
+
+    private void runCommands(Deque<BattleCommand> commands) {
+        if (isBattleOver() || commands.isEmpty()) return;
+        if (waitingForAnimation) {
+            schedule(AI_POLL_MS, () -> runCommands(commands));
+            return;
+        }
+        if (!isAITurn()) {
+            // Auto-battle was switched off mid-turn; the player finishes it
+            aiTurnPending = false;
+            updateActionButtons();
+            return;
+        }
+        BattleCommand next = commands.poll();
+        if (commands.isEmpty()) aiTurnPending = false;
+        next.execute(battleManager);
+        repaintGrid();
+        if (!commands.isEmpty()) schedule(delay(COMMAND_DELAY_MS), () -> runCommands(commands));
+    }
+
+    private void schedule(int delayMs, Runnable action) {
+        Timer timer = new Timer(delayMs, e -> action.run());
         timer.setRepeats(false);
         timer.start();
     }
 
+    private boolean isBattleOver() {
+        return battleManager.getState() == BattleState.VICTORY
+                || battleManager.getState() == BattleState.DEFEAT;
+    }
+
     @Override
     public void onBattleStarted() {
         log("Бой начинается!");
@@ -239,21 +459,26 @@ public class BattleFrame extends JFrame implements BattleListener {
         }
         statusLabel.setText(String.format("  Раунд %d%s  —  %s %s",
                 battleManager.getRoundNumber(), missionInfo, side, unit.getName()));
-        turnOrderPanel.updateTurnOrder(battleManager.getTurnOrder(), unit, battleManager);
-        unitInfoPanel.showUnit(unit);
-        gridPanel.repaint();
+        if (!skipAnimations || battleManager.getRoundNumber() != lastPaintedRound
+                || !aiPipeline.controls(battleManager, unit)) {
+            lastPaintedRound = battleManager.getRoundNumber();
+            turnOrderPanel.updateTurnOrder(battleManager.getSnapshot());
+            unitInfoPanel.showUnit(unit);
+            scrollToUnit(unit);
+            gridPanel.repaint();
+        }
 
-        if (battleManager.isPlayerUnit(unit)) {
-            updateActionButtons();
+        if (aiPipeline.controls(battleManager, unit)) {
+            processAITurn();
         } else {
-            processEnemyTurn();
+            updateActionButtons();
         }
     }
 
     @Override
     public void onUnitMoved(Combatant unit, Position from, Position to) {
         log(unit.getName() + " перемещается " + from + " → " + to);
-        gridPanel.repaint();
+        repaintGrid();
     }
 
     @Override
@@ -268,7 +493,7 @@ public class BattleFrame extends JFrame implements BattleListener {
                     target.getHp(), target.getMaxHp()));
         }
         unitInfoPanel.showUnit(target);
-        gridPanel.repaint();
+        repaintGrid();
 
         if (blackFlash) {
             Position targetPos = battleManager.getUnitPosition(target);
@@ -292,7 +517,7 @@ public class BattleFrame extends JFrame implements BattleListener {
                 user.getName(), techniqueName, target.getName(), damage,
                 target.getHp(), target.getMaxHp()));
         unitInfoPanel.showUnit(target);
-        gridPanel.repaint();
+        repaintGrid();
 
         if (animationType != null && !"NONE".equals(animationType) && targetPos != null) {
             waitingForAnimation = true;
@@ -309,13 +534,13 @@ public class BattleFrame extends JFrame implements BattleListener {
     @Override
     public void onUnitDefended(Combatant unit) {
         log(unit.getName() + " занимает оборонительную позицию!");
-        gridPanel.repaint();
+        repaintGrid();
     }
 
     @Override
     public void onUnitDefeated(Combatant unit) {
         log(">>> " + unit.getName() + " ПОВЕРЖЕН! <<<");
-        gridPanel.repaint();
+        repaintGrid();
     }
 
     @Override
@@ -1,6 +1,7 @@
 package views;
 
 import controllers.BattleManager;
+import controllers.BattleSnapshot;
 import models.Combatant;
 import techniques.CursedTechnique;
 import utils.Position;
@@ -9,9 +10,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
 public class BattleGridPanel extends JPanel {
 
@@ -20,8 +19,11 @@ public class BattleGridPanel extends JPanel {
     private final BattleManager battleManager;
     private final BattleFrame parentFrame;
 
-    private final Set<Position> moveHighlights = new HashSet<>();
-    private final Set<Position> attackHighlights = new HashSet<>();
+    private final int gridWidth;
+    private final int gridHeight;
+    private final boolean[] moveHighlights;
+    private final boolean[] attackHighlights;
+    private final boolean[] threatHighlights;
 
     public enum UIMode { IDLE, MOVE, ATTACK, TECHNIQUE }
     private UIMode mode = UIMode.IDLE;
@@ -33,27 +35,49 @@ public class BattleGridPanel extends JPanel {
     private int animFrame = 0;
     private Timer animTimer = null;
     private Runnable animationCallback = null;
+    private int speedMultiplier = 1;
+    private boolean animationsEnabled = true;
 
     private static final Color TILE_LIGHT      = new Color(55, 53, 50);
     private static final Color TILE_DARK       = new Color(44, 42, 39);
+    private static final Color OBSTACLE_COLOR  = new Color(22, 21, 20);
     private static final Color PLAYER_SIDE_BG  = new Color(30, 50, 70, 60);
     private static final Color ENEMY_SIDE_BG   = new Color(70, 30, 30, 60);
     private static final Color MOVE_HL         = new Color(100, 180, 255, 100);
     private static final Color ATTACK_HL       = new Color(255, 100, 100, 110);
     private static final Color TECH_HL         = new Color(180, 100, 255, 110);
+    private static final Color THREAT_HL       = new Color(255, 120, 60, 200);
     private static final Color PLAYER_COLOR    = new Color(60, 130, 230);
     private static final Color ENEMY_COLOR     = new Color(210, 55, 55);
     private static final Color GLOW_COLOR      = new Color(255, 220, 50, 160);
     private static final Color DIVIDER_COLOR   = new Color(180, 160, 100, 90);
     private static final Color DEFEND_COLOR    = new Color(80, 200, 140);
+    private static final Color GRID_LINE_COLOR = new Color(30, 28, 26);
+    private static final Color HP_BAR_BG       = new Color(20, 20, 20);
+    private static final Color HP_HIGH         = new Color(60, 200, 60);
+    private static final Color HP_MID          = new Color(230, 160, 30);
+    private static final Color HP_LOW          = new Color(220, 50, 50);
+    private static final Color EXHAUSTED_SHADE = new Color(0, 0, 0, 80);
+    private static final Font  INITIALS_FONT   = new Font("Arial", Font.BOLD, 12);
+    private static final Font  BADGE_FONT      = new Font("Arial", Font.BOLD, 8);
+    private static final Stroke THIN_STROKE    = new BasicStroke(1f);
+    private static final Stroke UNIT_STROKE    = new BasicStroke(1.5f);
+    private static final Stroke DEFEND_STROKE  = new BasicStroke(2.5f);
+    private static final Stroke DIVIDER_STROKE = new BasicStroke(1.5f, BasicStroke.CAP_BUTT,
+            BasicStroke.JOIN_MITER, 10f, new float[]{6f, 4f}, 0f);
 
     public BattleGridPanel(BattleManager manager, BattleFrame parent) {
         this.battleManager = manager;
         this.parentFrame = parent;
+        this.gridWidth = manager.getWidth();
+        this.gridHeight = manager.getHeight();
+        this.moveHighlights = new boolean[gridWidth * gridHeight];
+        this.attackHighlights = new boolean[gridWidth * gridHeight];
+        this.threatHighlights = new boolean[gridWidth * gridHeight];
 
-        int size = BattleManager.GRID_SIZE * TILE_SIZE;
-        setPreferredSize(new Dimension(size, size));
-        setMinimumSize(new Dimension(size, size));
+        Dimension size = new Dimension(gridWidth * TILE_SIZE, gridHeight * TILE_SIZE);
+        setPreferredSize(size);
+        setMinimumSize(size);
 
         addMouseListener(new MouseAdapter() {
             @Override
@@ -61,11 +85,51 @@ public class BattleGridPanel extends JPanel {
                 handleClick(e.getX(), e.getY());
             }
         });
+        ToolTipManager.sharedInstance().registerComponent(this);
+    }
+
+    /** Hovering an enemy of the acting unit previews its damage from the battle's damage matrix. */
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        int gx = e.getX() / TILE_SIZE;
+        int gy = e.getY() / TILE_SIZE;
+        if (gx < 0 || gx >= gridWidth || gy < 0 || gy >= gridHeight) return null;
+
+        Combatant attacker = battleManager.getCurrentUnit();
+        Combatant target = battleManager.getUnitAt(Position.of(gx, gy));
+        if (attacker == null || target == null || !target.isAlive()
+                || battleManager.isPlayerUnit(attacker) == battleManager.isPlayerUnit(target)) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder("<html><b>").append(target.getName()).append("</b>");
+        appendDamage(sb, "Атака", attacker, target, null);
+        for (CursedTechnique tech : battleManager.getAvailableTechniques()) {
+            appendDamage(sb, tech.getName(), attacker, target, tech);
+        }
+        return sb.append("</html>").toString();
+    }
+
+    private void appendDamage(StringBuilder sb, String action, Combatant attacker, Combatant target,
+                              CursedTechnique tech) {
+        int damage = battleManager.getDamageEstimate(attacker, target, tech);
+        double expected = battleManager.getExpectedDamage(attacker, target, tech);
+        sb.append("<br>").append(action).append(": ")
+          .append(Math.min(damage, target.getHp()))
+          .append(String.format(" (≈%.1f)", Math.min(expected, target.getHp())));
+        if (battleManager.isLethal(attacker, target, tech)) sb.append(" — добьёт");
     }
 
     public void showMovementRange() {
         clearHighlightsInternal();
-        moveHighlights.addAll(battleManager.getMovablePositions());
+        for (Position p : battleManager.getMovablePositions()) {
+            moveHighlights[tileIndex(p.getX(), p.getY())] = true;
+        }
+        // Враги, до которых можно дотянуться после перемещения
+        for (Combatant target : battleManager.getThreatMap().getThreatenedTargets()) {
+            Position p = battleManager.getUnitPosition(target);
+            if (p != null) threatHighlights[tileIndex(p.getX(), p.getY())] = true;
+        }
         mode = UIMode.MOVE;
         repaint();
     }
@@ -74,7 +138,7 @@ public class BattleGridPanel extends JPanel {
         clearHighlightsInternal();
         for (Combatant target : battleManager.getAttackableTargets()) {
             Position p = battleManager.getUnitPosition(target);
-            if (p != null) attackHighlights.add(p);
+            if (p != null) attackHighlights[tileIndex(p.getX(), p.getY())] = true;
         }
         mode = UIMode.ATTACK;
         repaint();
@@ -85,7 +149,7 @@ public class BattleGridPanel extends JPanel {
         this.selectedTechnique = tech;
         for (Combatant target : battleManager.getTechniqueTargets(tech)) {
             Position p = battleManager.getUnitPosition(target);
-            if (p != null) attackHighlights.add(p);
+            if (p != null) attackHighlights[tileIndex(p.getX(), p.getY())] = true;
         }
         mode = UIMode.TECHNIQUE;
         repaint();
@@ -97,8 +161,9 @@ public class BattleGridPanel extends JPanel {
     }
 
     private void clearHighlightsInternal() {
-        moveHighlights.clear();
-        attackHighlights.clear();
+        Arrays.fill(moveHighlights, false);
+        Arrays.fill(attackHighlights, false);
+        Arrays.fill(threatHighlights, false);
         mode = UIMode.IDLE;
         selectedTechnique = null;
     }
@@ -109,14 +174,14 @@ public class BattleGridPanel extends JPanel {
         this.animFrame = 0;
         this.animationCallback = onComplete;
 
-        int totalFrames = getAnimationFrameCount(type);
+        int totalFrames = animationsEnabled ? getAnimationFrameCount(type) : 0;
         if (totalFrames <= 0) {
             if (onComplete != null) onComplete.run();
             return;
         }
 
         animTimer = new Timer(30, e -> {
-            animFrame++;
+            animFrame += speedMultiplier;
             repaint();
             if (animFrame >= totalFrames) {
                 stopAnimation();
@@ -141,6 +206,16 @@ public class BattleGridPanel extends JPanel {
         }
     }
 
+    /** Turbo: animations skip frames so they finish {@code multiplier} times faster. */
+    public void setSpeedMultiplier(int multiplier) {
+        this.speedMultiplier = Math.max(1, multiplier);
+    }
+
+    /** When disabled, {@link #playAnimation} completes immediately without drawing. */
+    public void setAnimationsEnabled(boolean enabled) {
+        this.animationsEnabled = enabled;
+    }
+
     public boolean isAnimating() {
         return animTimer != null;
     }
@@ -157,9 +232,10 @@ public class BattleGridPanel extends JPanel {
 
         int gx = px / TILE_SIZE;
         int gy = py / TILE_SIZE;
-        if (gx < 0 || gx >= BattleManager.GRID_SIZE || gy < 0 || gy >= BattleManager.GRID_SIZE) return;
+        if (gx < 0 || gx >= gridWidth || gy < 0 || gy >= gridHeight) return;
 
-        Position clicked = new Position(gx, gy);
+        Position clicked = Position.of(gx, gy);
+        int tile = tileIndex(gx, gy);
 
         switch (mode) {
             case IDLE:
@@ -168,7 +244,7 @@ public class BattleGridPanel extends JPanel {
                 break;
 
             case MOVE:
-                if (moveHighlights.contains(clicked)) {
+                if (moveHighlights[tile]) {
                     battleManager.moveUnit(clicked);
                     clearHighlightsInternal();
                     parentFrame.onActionCompleted();
@@ -177,7 +253,7 @@ public class BattleGridPanel extends JPanel {
 
             case ATTACK:
                 Combatant target = battleManager.getUnitAt(clicked);
-                if (target != null && attackHighlights.contains(clicked)) {
+                if (target != null && attackHighlights[tile]) {
                     clearHighlightsInternal();
                     battleManager.basicAttack(target);
                     // onActionCompleted is called by BattleFrame.onUnitAttacked (via listener)
@@ -186,7 +262,7 @@ public class BattleGridPanel extends JPanel {
 
             case TECHNIQUE:
                 Combatant techTarget = battleManager.getUnitAt(clicked);
-                if (techTarget != null && attackHighlights.contains(clicked) && selectedTechnique != null) {
+                if (techTarget != null && attackHighlights[tile] && selectedTechnique != null) {
                     CursedTechnique tech = selectedTechnique;
                     clearHighlightsInternal();
                     battleManager.useTechnique(tech, techTarget);
@@ -203,8 +279,15 @@ public class BattleGridPanel extends JPanel {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-        for (int x = 0; x < BattleManager.GRID_SIZE; x++) {
-            for (int y = 0; y < BattleManager.GRID_SIZE; y++) {
+        // Большие поля лежат в JScrollPane: рисуем только видимые клетки
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int x0 = Math.max(0, clip.x / TILE_SIZE);
+        int y0 = Math.max(0, clip.y / TILE_SIZE);
+        int x1 = Math.min(gridWidth - 1, (clip.x + clip.width) / TILE_SIZE);
+        int y1 = Math.min(gridHeight - 1, (clip.y + clip.height) / TILE_SIZE);
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
                 drawTile(g2, x, y);
             }
         }
@@ -213,11 +296,14 @@ public class BattleGridPanel extends JPanel {
 
         drawMidFieldDivider(g2);
 
-        for (Map.Entry<Combatant, Position> entry : battleManager.getUnitPositions().entrySet()) {
-            Combatant unit = entry.getKey();
-            Position pos = entry.getValue();
-            if (unit.isAlive()) {
-                drawUnit(g2, unit, pos);
+        BattleSnapshot snapshot = battleManager.getSnapshot();
+        if (snapshot != null) {
+            for (BattleSnapshot.UnitState unit : snapshot.getUnits()) {
+                if (unit.isAlive() && unit.getPosition() != null
+                        && clip.intersects(unit.getPosition().getX() * TILE_SIZE,
+                                           unit.getPosition().getY() * TILE_SIZE, TILE_SIZE, TILE_SIZE)) {
+                    drawUnit(g2, snapshot, unit);
+                }
             }
         }
 
@@ -227,54 +313,69 @@ public class BattleGridPanel extends JPanel {
     private void drawTile(Graphics2D g, int x, int y) {
         int px = x * TILE_SIZE;
         int py = y * TILE_SIZE;
-        Position pos = new Position(x, y);
+        int tile = tileIndex(x, y);
+
+        if (!battleManager.getTerrain().isWalkable(x, y)) {
+            g.setColor(OBSTACLE_COLOR);
+            g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
+            g.setColor(GRID_LINE_COLOR);
+            g.drawRect(px, py, TILE_SIZE, TILE_SIZE);
+            return;
+        }
 
         g.setColor((x + y) % 2 == 0 ? TILE_LIGHT : TILE_DARK);
         g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
 
-        if (moveHighlights.contains(pos)) {
+        if (moveHighlights[tile]) {
             g.setColor(MOVE_HL);
             g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
-        } else if (attackHighlights.contains(pos)) {
+        } else if (attackHighlights[tile]) {
             g.setColor(mode == UIMode.TECHNIQUE ? TECH_HL : ATTACK_HL);
             g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
         }
 
-        g.setColor(new Color(30, 28, 26));
+        if (threatHighlights[tile]) {
+            g.setColor(THREAT_HL);
+            g.setStroke(DEFEND_STROKE);
+            g.drawRect(px + 2, py + 2, TILE_SIZE - 4, TILE_SIZE - 4);
+            g.setStroke(THIN_STROKE);
+        }
+
+        g.setColor(GRID_LINE_COLOR);
         g.drawRect(px, py, TILE_SIZE, TILE_SIZE);
     }
 
     private void drawSideTints(Graphics2D g) {
-        int rows = BattleManager.GRID_SIZE;
+        int rows = gridHeight;
 
         g.setColor(PLAYER_SIDE_BG);
         g.fillRect(0, 0, 2 * TILE_SIZE, rows * TILE_SIZE);
 
         g.setColor(ENEMY_SIDE_BG);
-        g.fillRect(8 * TILE_SIZE, 0, 2 * TILE_SIZE, rows * TILE_SIZE);
+        g.fillRect((gridWidth - 2) * TILE_SIZE, 0, 2 * TILE_SIZE, rows * TILE_SIZE);
     }
 
     private void drawMidFieldDivider(Graphics2D g) {
-        int gridHeight = BattleManager.GRID_SIZE * TILE_SIZE;
-        int midX = (BattleManager.GRID_SIZE / 2) * TILE_SIZE;
+        int bottom = gridHeight * TILE_SIZE;
+        int midX = (gridWidth / 2) * TILE_SIZE;
 
         Stroke old = g.getStroke();
-        g.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
-                10f, new float[]{6f, 4f}, 0f));
+        g.setStroke(DIVIDER_STROKE);
         g.setColor(DIVIDER_COLOR);
-        g.drawLine(midX, 4, midX, gridHeight - 4);
+        g.drawLine(midX, 4, midX, bottom - 4);
         g.setStroke(old);
     }
 
-    private void drawUnit(Graphics2D g, Combatant unit, Position pos) {
+    private void drawUnit(Graphics2D g, BattleSnapshot snapshot, BattleSnapshot.UnitState unit) {
+        Position pos = unit.getPosition();
         int px = pos.getX() * TILE_SIZE;
         int py = pos.getY() * TILE_SIZE;
         int margin = 6;
         int unitSize = TILE_SIZE - margin * 2;
 
-        boolean isPlayer = battleManager.isPlayerUnit(unit);
-        boolean isCurrent = (unit == battleManager.getCurrentUnit());
-        boolean isDefending = battleManager.isDefending(unit);
+        boolean isPlayer = unit.isPlayer();
+        boolean isCurrent = snapshot.isCurrent(unit);
+        boolean isDefending = unit.isDefending();
         Color unitColor = isPlayer ? PLAYER_COLOR : ENEMY_COLOR;
 
         if (isCurrent) {
@@ -284,27 +385,27 @@ public class BattleGridPanel extends JPanel {
 
         if (isDefending) {
             g.setColor(DEFEND_COLOR);
-            g.setStroke(new BasicStroke(2.5f));
+            g.setStroke(DEFEND_STROKE);
             g.drawOval(px + margin - 3, py + margin - 3, unitSize + 6, unitSize + 6);
-            g.setStroke(new BasicStroke(1f));
+            g.setStroke(THIN_STROKE);
         }
 
         boolean isExhausted = isCurrent
-                && battleManager.isCurrentUnitMoved()
-                && battleManager.isCurrentUnitActed();
+                && snapshot.isCurrentUnitMoved()
+                && snapshot.isCurrentUnitActed();
         g.setColor(isExhausted ? unitColor.darker().darker() : unitColor);
         g.fillOval(px + margin, py + margin, unitSize, unitSize);
         g.setColor(unitColor.darker());
-        g.setStroke(new BasicStroke(1.5f));
+        g.setStroke(UNIT_STROKE);
         g.drawOval(px + margin, py + margin, unitSize, unitSize);
-        g.setStroke(new BasicStroke(1f));
+        g.setStroke(THIN_STROKE);
         if (isExhausted) {
-            g.setColor(new Color(0, 0, 0, 80));
+            g.setColor(EXHAUSTED_SHADE);
             g.fillOval(px + margin, py + margin, unitSize, unitSize);
         }
 
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
+        g.setFont(INITIALS_FONT);
         String initials = getInitials(unit.getName());
         FontMetrics fm = g.getFontMetrics();
         int textX = px + (TILE_SIZE - fm.stringWidth(initials)) / 2;
@@ -317,10 +418,9 @@ public class BattleGridPanel extends JPanel {
         int barH = 4;
         double hpRatio = (double) unit.getHp() / unit.getMaxHp();
 
-        g.setColor(new Color(20, 20, 20));
+        g.setColor(HP_BAR_BG);
         g.fillRect(barX, barY, barW, barH);
-        Color hpColor = hpRatio > 0.5 ? new Color(60, 200, 60)
-                : hpRatio > 0.25 ? new Color(230, 160, 30) : new Color(220, 50, 50);
+        Color hpColor = hpRatio > 0.5 ? HP_HIGH : hpRatio > 0.25 ? HP_MID : HP_LOW;
         g.setColor(hpColor);
         g.fillRect(barX, barY, (int) (barW * hpRatio), barH);
 
@@ -330,7 +430,7 @@ public class BattleGridPanel extends JPanel {
             g.setColor(DEFEND_COLOR);
             g.fillOval(bx - 6, by - 1, 12, 12);
             g.setColor(Color.WHITE);
-            g.setFont(new Font("Arial", Font.BOLD, 8));
+            g.setFont(BADGE_FONT);
             FontMetrics fm2 = g.getFontMetrics();
             g.drawString("D", bx - fm2.stringWidth("D") / 2, by + 8);
         }
@@ -477,6 +577,10 @@ public class BattleGridPanel extends JPanel {
         g.setStroke(old);
     }
 
+    private int tileIndex(int x, int y) {
+        return x * gridHeight + y;
+    }
+
     private String getInitials(String name) {
         String[] parts = name.split(" ");
         if (parts.length >= 2) {
@@ -1,13 +1,20 @@
 package views;
 
 import enums.DistrictStatus;
+import enums.TurnMode;
 import models.Combatant;
 import models.District;
 import models.Mission;
 import models.SorcererTeam;
+import models.TechTree;
+import models.Terrain;
+import simulation.BatchStats;
+import simulation.OutcomeCache;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class DistrictInfoPanel extends JPanel {
 
@@ -19,6 +26,10 @@ public class DistrictInfoPanel extends JPanel {
     private static final Color LOCKED_COLOR   = new Color(120, 120, 120);
     private static final Color CONTESTED_COLOR = new Color(220, 200, 50);
 
+    /** Headless battles behind the win-chance preview. */
+    private static final int  PREVIEW_BATTLES = 256;
+    private static final long PREVIEW_SEED    = 0x5EEDL;
+
     private JLabel nameLabel;
     private JLabel statusLabel;
     private JLabel threatLabel;
@@ -26,6 +37,13 @@ public class DistrictInfoPanel extends JPanel {
     private JLabel missionLabel;
     private JTextArea descriptionArea;
     private JTextArea enemyArea;
+    private JLabel winChanceLabel;
+    private JLabel casualtiesLabel;
+
+    private SorcererTeam previewTeam;
+    private TechTree previewTechTree;
+    private OutcomeCache previewCache;
+    private SwingWorker<BatchStats, BatchStats> previewWorker;
 
     public DistrictInfoPanel() {
         setBackground(BG_COLOR);
@@ -92,13 +110,33 @@ public class DistrictInfoPanel extends JPanel {
         enemyArea.setAlignmentX(LEFT_ALIGNMENT);
         enemyArea.setMaximumSize(new Dimension(190, 120));
         add(enemyArea);
+        add(Box.createVerticalStrut(10));
+
+        JLabel previewTitle = createLabel("Прогноз:", new Font("Arial", Font.BOLD, 11), LABEL_COLOR);
+        add(previewTitle);
+        add(Box.createVerticalStrut(4));
+
+        winChanceLabel = createLabel("Шанс победы: --", new Font("Arial", Font.PLAIN, 12), TEXT_COLOR);
+        add(winChanceLabel);
+        add(Box.createVerticalStrut(4));
+
+        casualtiesLabel = createLabel("Потери: --", new Font("Arial", Font.PLAIN, 12), TEXT_COLOR);
+        add(casualtiesLabel);
 
         add(Box.createVerticalGlue());
 
         clear();
     }
 
+    /** Team and research the win-chance preview simulates; finished batches go to {@code cache}. */
+    public void setPreviewSource(SorcererTeam playerTeam, TechTree techTree, OutcomeCache cache) {
+        this.previewTeam     = playerTeam;
+        this.previewTechTree = techTree;
+        this.previewCache    = cache;
+    }
+
     public void showDistrict(District district) {
+        cancelPreview();
         if (district == null) { clear(); return; }
 
         nameLabel.setText(district.getName());
@@ -136,11 +174,84 @@ public class DistrictInfoPanel extends JPanel {
                 }
             }
             enemyArea.setText(sb.toString().trim());
+            startPreview(district);
         } else {
             enemyArea.setText(status == DistrictStatus.LOCKED ? "Неизвестно" : "Нет");
+            clearPreview();
         }
     }
 
+    /** Stops the running preview; battles already in flight finish, no new ones start. */
+    public void cancelPreview() {
+        if (previewWorker != null) {
+            previewWorker.cancel(false);
+            previewWorker = null;
+        }
+    }
+
+    private void startPreview(District district) {
+        if (previewTeam == null || previewCache == null || previewTeam.getAliveMembers().isEmpty()) {
+            clearPreview();
+            return;
+        }
+        Mission mission = district.getMission();
+        int turnLimit = mission != null && mission.hasTurnLimit() ? mission.getTurnLimit() : 0;
+        // Teams and research change on the EDT, so the worker gets fixed copies
+        SorcererTeam players = previewTeam.copy();
+        SorcererTeam enemies = district.getCombinedEnemyTeam().copy();
+        int fielded = players.getAliveMembers().size();
+        Terrain terrain = district.createTerrain();
+        TurnMode turnMode = district.getTurnMode();
+        TechTree techTree = previewTechTree != null ? new TechTree(previewTechTree.getResearched()) : null;
+        OutcomeCache cache = previewCache;
+
+        winChanceLabel.setText("Шанс победы: считаем...");
+        casualtiesLabel.setText("Потери: --");
+        previewWorker = new SwingWorker<BatchStats, BatchStats>() {
+            @Override
+            protected BatchStats doInBackground() {
+                return cache.get(players, enemies, techTree, terrain, turnMode, turnLimit,
+                        PREVIEW_BATTLES, PREVIEW_SEED, this::publish, this::isCancelled);
+            }
+
+            @Override
+            protected void process(List<BatchStats> chunks) {
+                if (previewWorker != this) return;
+                BatchStats latest = chunks.get(0);
+                for (BatchStats stats : chunks) {
+                    if (stats.getBattles() > latest.getBattles()) latest = stats;
+                }
+                showPreview(latest, fielded, false);
+            }
+
+            @Override
+            protected void done() {
+                if (previewWorker != this) return;
+                previewWorker = null;
+                try {
+                    BatchStats stats = get();
+                    showPreview(stats, fielded, true);
+                } catch (InterruptedException | ExecutionException e) {
+                    winChanceLabel.setText("Шанс победы: ошибка");
+                }
+            }
+        };
+        previewWorker.execute();
+    }
+
+    private void showPreview(BatchStats stats, int fielded, boolean finished) {
+        String progress = finished ? "" : String.format(" (%d/%d)", stats.getBattles(), PREVIEW_BATTLES);
+        winChanceLabel.setText(String.format("Шанс победы: %.0f%%%s", stats.getWinRate() * 100, progress));
+        winChanceLabel.setForeground(stats.getWinRate() >= 0.5 ? CONTROLLED_COLOR : HOSTILE_COLOR);
+        casualtiesLabel.setText(String.format("Потери: ~%.1f из %d", stats.getAverageCasualties(), fielded));
+    }
+
+    private void clearPreview() {
+        winChanceLabel.setText("Шанс победы: --");
+        winChanceLabel.setForeground(TEXT_COLOR);
+        casualtiesLabel.setText("Потери: --");
+    }
+
     public void clear() {
         nameLabel.setText("--");
         statusLabel.setText("Статус: --");
@@ -152,6 +263,7 @@ public class DistrictInfoPanel extends JPanel {
         missionLabel.setVisible(false);
         descriptionArea.setText("");
         enemyArea.setText("");
+        clearPreview();
     }
 
     private JLabel createLabel(String text, Font font, Color color) {
@@ -12,9 +12,11 @@ public class GameActionPanel extends JPanel {
     private static final Color TEAM_INFO_COLOR = new Color(65, 150, 70);
     private static final Color BUILDINGS_COLOR = new Color(145, 90, 25);
     private static final Color TECH_COLOR      = new Color(90, 55, 170);
+    private static final Color AUTO_COLOR      = new Color(150, 70, 60);
 
     private JButton travelButton;
     private JButton missionButton;
+    private JButton autoResolveButton;
     private JButton endTurnButton;
     private JButton teamInfoButton;
     private JButton buildingsButton;
@@ -25,6 +27,7 @@ public class GameActionPanel extends JPanel {
     public interface GameActionListener {
         void onTravelClicked();
         void onStartMissionClicked();
+        void onAutoResolveClicked();
         void onEndTurnClicked();
         void onTeamInfoClicked();
         void onBuildingsClicked();
@@ -38,6 +41,7 @@ public class GameActionPanel extends JPanel {
 
         travelButton    = createButton("Перемещение",   TRAVEL_COLOR);
         missionButton   = createButton("Начать миссию", MISSION_COLOR);
+        autoResolveButton = createButton("Автобой",     AUTO_COLOR);
         buildingsButton = createButton("Здания",        BUILDINGS_COLOR);
         techTreeButton  = createButton("Технологии",    TECH_COLOR);
         endTurnButton   = createButton("Конец хода",    END_TURN_COLOR);
@@ -45,6 +49,7 @@ public class GameActionPanel extends JPanel {
 
         add(travelButton);
         add(missionButton);
+        add(autoResolveButton);
         add(buildingsButton);
         add(techTreeButton);
         add(endTurnButton);
@@ -56,6 +61,9 @@ public class GameActionPanel extends JPanel {
         missionButton.addActionListener(e -> {
             if (actionListener != null) actionListener.onStartMissionClicked();
         });
+        autoResolveButton.addActionListener(e -> {
+            if (actionListener != null) actionListener.onAutoResolveClicked();
+        });
         buildingsButton.addActionListener(e -> {
             if (actionListener != null) actionListener.onBuildingsClicked();
         });
@@ -75,7 +83,10 @@ public class GameActionPanel extends JPanel {
     }
 
     public void setTravelEnabled(boolean enabled)  { travelButton.setEnabled(enabled); }
-    public void setMissionEnabled(boolean enabled) { missionButton.setEnabled(enabled); }
+    public void setMissionEnabled(boolean enabled) {
+        missionButton.setEnabled(enabled);
+        autoResolveButton.setEnabled(enabled);
+    }
     public void setEndTurnEnabled(boolean enabled) { endTurnButton.setEnabled(enabled); }
 
     private JButton createButton(String text, Color bg) {
@@ -2,16 +2,24 @@ package views;
 
 import controllers.GameListener;
 import controllers.GameManager;
+import controllers.MctsAIController;
 import enums.BattleState;
 import models.District;
 import models.SorcererTeam;
 
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class GameFrame extends JFrame implements GameListener,
         MapPanel.DistrictSelectionListener, GameActionPanel.GameActionListener {
 
+    /** Districts this cursed (Акихабара, Асакуса) get the tree-search enemy AI. */
+    private static final int SEARCH_AI_CURSE_LEVEL = 4;
+    /** Every mission battle is recorded here as battle-<seed>.jkr for bug reports. */
+    private static final Path REPLAY_DIR = Paths.get("replays");
+
     private final GameManager gameManager;
 
     private MapPanel mapPanel;
@@ -64,6 +72,8 @@ public class GameFrame extends JFrame implements GameListener,
         add(mapPanel, BorderLayout.CENTER);
 
         infoPanel = new DistrictInfoPanel();
+        infoPanel.setPreviewSource(gameManager.getPlayerTeam(), gameManager.getTechTree(),
+                gameManager.getAutoResolver().getOutcomeCache());
         add(infoPanel, BorderLayout.EAST);
 
         JPanel bottomPanel = new JPanel(new BorderLayout());
@@ -143,17 +153,26 @@ public class GameFrame extends JFrame implements GameListener,
 
     @Override
     public void onStartMissionClicked() {
+        int curseLevel = gameManager.getCurrentDistrict().getCurseLevel();
         SorcererTeam enemies = gameManager.startMission();
         if (enemies == null) return;
 
         log("Начинается бой в «" + gameManager.getCurrentDistrict().getName() + "»...");
+        infoPanel.cancelPreview();
 
         setVisible(false);
 
         SorcererTeam playerCopy = gameManager.getPlayerTeam();
+        long seed = gameManager.nextBattleSeed();
         BattleFrame battleFrame = new BattleFrame(playerCopy, enemies,
-                gameManager.getTechTree(), gameManager.getCurrentMission());
+                gameManager.getTechTree(), gameManager.getCurrentMission(),
+                seed, gameManager.getCurrentDistrict().createTerrain(),
+                gameManager.getCurrentDistrict().getTurnMode(),
+                REPLAY_DIR.resolve("battle-" + Long.toHexString(seed) + ".jkr"));
         battleFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        if (curseLevel >= SEARCH_AI_CURSE_LEVEL) {
+            battleFrame.setEnemyAI(new MctsAIController());
+        }
 
         battleFrame.setBattleEndCallback(result -> SwingUtilities.invokeLater(() -> {
             battleFrame.dispose();
@@ -165,6 +184,12 @@ public class GameFrame extends JFrame implements GameListener,
         battleFrame.setVisible(true);
     }
 
+    @Override
+    public void onAutoResolveClicked() {
+        infoPanel.cancelPreview();
+        if (gameManager.autoResolveMission() != null) refreshMap();
+    }
+
     @Override
     public void onEndTurnClicked() {
         gameManager.endTurn();
@@ -1,11 +1,9 @@
 package views;
 
-import controllers.BattleManager;
-import models.Combatant;
+import controllers.BattleSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 public class TurnOrderPanel extends JPanel {
 
@@ -23,7 +21,7 @@ public class TurnOrderPanel extends JPanel {
         setBorder(BorderFactory.createEmptyBorder(1, 6, 1, 6));
     }
 
-    public void updateTurnOrder(List<Combatant> turnOrder, Combatant current, BattleManager manager) {
+    public void updateTurnOrder(BattleSnapshot snapshot) {
         removeAll();
 
         JLabel header = new JLabel("Очередь: ");
@@ -31,11 +29,11 @@ public class TurnOrderPanel extends JPanel {
         header.setForeground(new Color(160, 158, 150));
         add(header);
 
-        for (Combatant unit : turnOrder) {
+        for (BattleSnapshot.UnitState unit : snapshot.getTurnOrder()) {
             if (!unit.isAlive()) continue;
 
-            boolean isCurrent = (unit == current);
-            boolean isPlayer  = manager.isPlayerUnit(unit);
+            boolean isCurrent = snapshot.isCurrent(unit);
+            boolean isPlayer  = unit.isPlayer();
 
             String shortName = getShortName(unit.getName());
             JLabel label = new JLabel(shortName);